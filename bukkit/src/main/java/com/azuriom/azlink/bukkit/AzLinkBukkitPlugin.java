@@ -2,7 +2,7 @@ package com.azuriom.azlink.bukkit;
 
 import com.azuriom.azlink.bukkit.command.BukkitCommandExecutor;
 import com.azuriom.azlink.bukkit.command.BukkitCommandSender;
-import com.azuriom.azlink.bukkit.injector.InjectedHttpServer;
+import com.azuriom.azlink.bukkit.injector.BukkitInjectedHttpServer;
 import com.azuriom.azlink.bukkit.injector.NettyLibraryLoader;
 import com.azuriom.azlink.bukkit.integrations.AuthMeIntegration;
 import com.azuriom.azlink.bukkit.integrations.FoliaSchedulerAdapter;
@@ -18,6 +18,7 @@ import com.azuriom.azlink.common.logger.JavaLoggerAdapter;
 import com.azuriom.azlink.common.logger.LoggerAdapter;
 import com.azuriom.azlink.common.platform.PlatformInfo;
 import com.azuriom.azlink.common.platform.PlatformType;
+import com.azuriom.azlink.common.scheduler.BatchedSyncExecutor;
 import com.azuriom.azlink.common.scheduler.JavaSchedulerAdapter;
 import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
 import com.azuriom.azlink.common.tasks.TpsTask;
@@ -27,11 +28,13 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Stream;
 
 public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatform {
 
     private final TpsTask tpsTask = new TpsTask();
+    private final BatchedSyncExecutor syncExecutor = new BatchedSyncExecutor((message, e) -> this.logger.error(message, e));
     private final SchedulerAdapter scheduler = createSchedulerAdapter();
 
     private AzLinkPlugin plugin;
@@ -67,7 +70,7 @@ public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatfo
                 }
 
                 if (plugin.getConfig().getHttpPort() == getServer().getPort()) {
-                    return new InjectedHttpServer(AzLinkBukkitPlugin.this);
+                    return new BukkitInjectedHttpServer(this);
                 }
 
                 return super.createHttpServer();
@@ -76,10 +79,14 @@ public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatfo
 
         saveDefaultConfig();
 
+        startSyncExecutor();
+
         this.plugin.init();
 
         getCommand("azlink").setExecutor(new BukkitCommandExecutor(this.plugin));
 
+        getServer().getPluginManager().registerEvents(new BukkitPlayerListener(this.plugin), this);
+
         scheduleTpsTask();
 
         if (getConfig().getBoolean("authme-integration")
@@ -165,16 +172,25 @@ public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatfo
         return Optional.of(new WorldData(this.tpsTask.getTps(), loadedChunks, entities));
     }
 
+    @Override
+    public OptionalDouble getTps() {
+        return OptionalDouble.of(this.tpsTask.getTps());
+    }
+
     @Override
     public Stream<CommandSender> getOnlinePlayers() {
-        if (getConfig().getBoolean("ignore-vanished-players", false)) {
-            return getServer().getOnlinePlayers()
-                    .stream()
-                    .filter(this::isPlayerVisible)
-                    .map(BukkitCommandSender::new);
+        return getServer().getOnlinePlayers().stream().map(BukkitCommandSender::new);
+    }
+
+    @Override
+    public boolean isPlayerHidden(CommandSender player) {
+        if (!getConfig().getBoolean("ignore-vanished-players", false)) {
+            return false;
         }
 
-        return getServer().getOnlinePlayers().stream().map(BukkitCommandSender::new);
+        Player bukkitPlayer = getServer().getPlayer(player.getUuid());
+
+        return bukkitPlayer != null && !isPlayerVisible(bukkitPlayer);
     }
 
     @Override
@@ -206,6 +222,13 @@ public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatfo
         getServer().getScheduler().runTaskTimer(this, this.tpsTask, 1, 1);
     }
 
+    private void startSyncExecutor() {
+        // Folia uses the global region scheduler instead
+        if (!isFolia()) {
+            getServer().getScheduler().runTaskTimer(this, this.syncExecutor::drain, 0, 1);
+        }
+    }
+
     private SchedulerAdapter createSchedulerAdapter() {
         try {
             Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask");
@@ -213,7 +236,7 @@ public final class AzLinkBukkitPlugin extends JavaPlugin implements AzLinkPlatfo
             return FoliaSchedulerAdapter.create(this);
         } catch (ClassNotFoundException e) {
             return new JavaSchedulerAdapter(
-                    r -> getServer().getScheduler().runTask(this, r),
+                    this.syncExecutor,
                     r -> getServer().getScheduler().runTaskAsynchronously(this, r)
             );
         }
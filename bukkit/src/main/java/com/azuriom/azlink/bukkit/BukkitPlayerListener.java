@@ -0,0 +1,28 @@
+package com.azuriom.azlink.bukkit;
+
+import com.azuriom.azlink.bukkit.command.BukkitCommandSender;
+import com.azuriom.azlink.common.AzLinkPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+public class BukkitPlayerListener implements Listener {
+
+    private final AzLinkPlugin plugin;
+
+    public BukkitPlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        this.plugin.handlePlayerJoin(new BukkitCommandSender(event.getPlayer()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.plugin.handlePlayerQuit(new BukkitCommandSender(event.getPlayer()));
+    }
+}
@@ -4,6 +4,7 @@ import com.azuriom.azlink.common.chat.TextComponent;
 import com.azuriom.azlink.common.command.CommandSender;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -30,6 +31,16 @@ public class BukkitCommandSender implements CommandSender {
         return UUID.nameUUIDFromBytes(getName().getBytes(StandardCharsets.UTF_8));
     }
 
+    @Override
+    @SuppressWarnings("deprecation") // Paper recommends the component display name
+    public String getDisplayName() {
+        if (this.sender instanceof Player) {
+            return ((Player) this.sender).getDisplayName();
+        }
+
+        return getName();
+    }
+
     @Override
     public void sendMessage(String message) {
         this.sender.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
@@ -0,0 +1,83 @@
+package com.azuriom.azlink.bukkit.injector;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.http.server.InjectedHttpServer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class BukkitInjectedHttpServer extends InjectedHttpServer {
+
+    public BukkitInjectedHttpServer(AzLinkPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void start() {
+        if (!Bukkit.getServer().getClass().getSimpleName().equals("CraftServer")) {
+            this.plugin.getLogger().error("Injecting HTTP server on server channel is only supported on CraftBukkit based servers. You can use an other port for AzLink.");
+            return;
+        }
+
+        super.start();
+    }
+
+    @Override
+    protected Collection<Channel> findServerChannels() throws Exception {
+        Object craftServer = Bukkit.getServer();
+        Method serverGetHandle = craftServer.getClass().getMethod("getServer");
+
+        Object minecraftServer = serverGetHandle.invoke(Bukkit.getServer());
+        Method getServerConnection = getServerConnectionMethod(minecraftServer);
+
+        Object serverConnection = getServerConnection.invoke(minecraftServer);
+
+        if (serverConnection == null) {
+            return Collections.emptyList(); // Not bound yet
+        }
+
+        for (Field field : serverConnection.getClass().getDeclaredFields()) {
+            if (field.getType() != List.class) {
+                continue;
+            }
+
+            field.setAccessible(true);
+
+            List<?> list = (List<?>) field.get(serverConnection);
+
+            for (Object item : list) {
+                if (!(item instanceof ChannelFuture)) {
+                    break; // Not the good list, try the next one
+                }
+
+                return Collections.singletonList(((ChannelFuture) item).channel());
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    private Method getServerConnectionMethod(Object minecraftServer) throws NoSuchMethodException {
+        Class<?> serverClass = minecraftServer.getClass();
+
+        try {
+            return serverClass.getMethod("getServerConnection");
+        } catch (NoSuchMethodException e) {
+            for (Method method : serverClass.getMethods()) {
+                String type = method.getReturnType().getSimpleName();
+
+                if (type.equals("ServerConnection") || type.equals("ServerConnectionListener")) {
+                    return method;
+                }
+            }
+        }
+
+        throw new NoSuchMethodException("Unable to find server connection method in " + serverClass.getName());
+    }
+}
@@ -55,7 +55,7 @@ public class AuthMeIntegration implements Listener {
         Player player = event.getPlayer();
 
         this.plugin.getPlugin()
-                .getHttpClient()
+                .getOutbox()
                 .updateEmail(player.getUniqueId(), event.getNewEmail())
                 .exceptionally(ex -> {
                     this.plugin.getLoggerAdapter().error("Unable to update email for " + player.getName(), ex);
@@ -81,7 +81,7 @@ public class AuthMeIntegration implements Listener {
         }
 
         this.plugin.getPlugin()
-                .getHttpClient()
+                .getOutbox()
                 .registerUser(player.getName(), email, player.getUniqueId(), password, ip)
                 .exceptionally(ex -> {
                     this.plugin.getLoggerAdapter().error("Unable to register " + player.getName(), ex);
@@ -107,7 +107,7 @@ public class AuthMeIntegration implements Listener {
             }
 
             this.plugin.getPlugin()
-                    .getHttpClient()
+                    .getOutbox()
                     .updatePassword(player.getUniqueId(), password)
                     .exceptionally(ex -> {
                         this.plugin.getLoggerAdapter().error("Unable to update password for " + player.getName(), ex);
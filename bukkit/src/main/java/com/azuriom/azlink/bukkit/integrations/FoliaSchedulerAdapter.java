@@ -2,14 +2,35 @@ package com.azuriom.azlink.bukkit.integrations;
 
 import com.azuriom.azlink.common.scheduler.JavaSchedulerAdapter;
 import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.UUID;
 import java.util.concurrent.Executor;
 
 public class FoliaSchedulerAdapter extends JavaSchedulerAdapter {
 
-    private FoliaSchedulerAdapter(Executor syncExecutor, Executor asyncExecutor) {
+    private final Plugin plugin;
+
+    private FoliaSchedulerAdapter(Plugin plugin, Executor syncExecutor, Executor asyncExecutor) {
         super(syncExecutor, asyncExecutor);
+
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void executeForPlayer(UUID playerId, Runnable runnable) {
+        Player player = this.plugin.getServer().getPlayer(playerId);
+
+        // When the player leaves before the task is executed, it's executed on the global region instead
+        if (player == null || player.getScheduler().run(this.plugin, t -> runnable.run(), () -> executeSync(runnable)) == null) {
+            executeSync(runnable);
+        }
+    }
+
+    @Override
+    public boolean hasPlayerThreads() {
+        return true;
     }
 
     public static void scheduleSyncTask(Plugin plugin, Runnable task, long delay, long interval) {
@@ -22,6 +43,7 @@ public class FoliaSchedulerAdapter extends JavaSchedulerAdapter {
         plugin.getLogger().info("Folia support enabled successfully.");
 
         return new FoliaSchedulerAdapter(
+                plugin,
                 r -> plugin.getServer().getGlobalRegionScheduler().execute(plugin, r),
                 r -> plugin.getServer().getAsyncScheduler().runNow(plugin, t -> r.run())
         );
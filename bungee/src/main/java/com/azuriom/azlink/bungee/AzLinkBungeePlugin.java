@@ -7,11 +7,17 @@ import com.azuriom.azlink.bungee.integrations.SkinsRestorerIntegration;
 import com.azuriom.azlink.common.AzLinkPlatform;
 import com.azuriom.azlink.common.AzLinkPlugin;
 import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.http.server.HttpServer;
+import com.azuriom.azlink.common.http.server.NettyHttpServer;
 import com.azuriom.azlink.common.logger.JavaLoggerAdapter;
 import com.azuriom.azlink.common.logger.LoggerAdapter;
 import com.azuriom.azlink.common.platform.PlatformInfo;
 import com.azuriom.azlink.common.platform.PlatformType;
 import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ReflectiveChannelFactory;
+import io.netty.channel.ServerChannel;
+import net.md_5.bungee.api.config.ListenerInfo;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.config.Configuration;
 import net.md_5.bungee.config.ConfigurationProvider;
@@ -19,6 +25,8 @@ import net.md_5.bungee.config.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 
@@ -37,10 +45,22 @@ public final class AzLinkBungeePlugin extends Plugin implements AzLinkPlatform {
 
     @Override
     public void onEnable() {
-        this.plugin = new AzLinkPlugin(this);
+        this.plugin = new AzLinkPlugin(this) {
+            @Override
+            protected HttpServer createHttpServer() {
+                if (isProxyPort(getConfig().getHttpPort())) {
+                    return new BungeeInjectedHttpServer(this, getProxy());
+                }
+
+                HttpServer server = createProxyHttpServer(this);
+
+                return server != null ? server : super.createHttpServer();
+            }
+        };
         this.plugin.init();
 
         getProxy().getPluginManager().registerCommand(this, new BungeeCommandExecutor(this.plugin));
+        getProxy().getPluginManager().registerListener(this, new BungeePlayerListener(this.plugin));
 
         loadConfig();
 
@@ -112,6 +132,46 @@ public final class AzLinkBungeePlugin extends Plugin implements AzLinkPlatform {
         return getProxy().getConfig().getPlayerLimit();
     }
 
+    private boolean isProxyPort(int port) {
+        for (ListenerInfo listener : getProxy().getConfig().getListeners()) {
+            SocketAddress address = listener.getSocketAddress();
+
+            if (address instanceof InetSocketAddress && ((InetSocketAddress) address).getPort() == port) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpServer createProxyHttpServer(AzLinkPlugin plugin) {
+        try {
+            // Reuse the proxy event loops instead of creating new threads
+            Object proxy = getProxy();
+            Class<?> proxyClass = proxy.getClass();
+            EventLoopGroup bossGroup = (EventLoopGroup) proxyClass.getField("bossEventLoopGroup").get(proxy);
+            EventLoopGroup workerGroup = (EventLoopGroup) proxyClass.getField("workerEventLoopGroup").get(proxy);
+
+            Class<?> pipelineUtils = Class.forName("net.md_5.bungee.netty.PipelineUtils");
+            Class<? extends ServerChannel> channelClass;
+
+            try {
+                channelClass = (Class<? extends ServerChannel>) pipelineUtils
+                        .getMethod("getServerChannel", SocketAddress.class)
+                        .invoke(null, new InetSocketAddress(plugin.getConfig().getHttpPort()));
+            } catch (NoSuchMethodException e) {
+                // Older BungeeCord versions
+                channelClass = (Class<? extends ServerChannel>) pipelineUtils.getMethod("getServerChannel").invoke(null);
+            }
+
+            return new NettyHttpServer(plugin, bossGroup, workerGroup, new ReflectiveChannelFactory<>(channelClass));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            this.loggerAdapter.warn("Unable to use the BungeeCord event loops for the HTTP server, new ones will be created: " + e);
+            return null;
+        }
+    }
+
     private void loadConfig() {
         File configFile = new File(getDataFolder(), "config.yml");
 
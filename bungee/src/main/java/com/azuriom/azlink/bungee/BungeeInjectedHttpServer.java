@@ -0,0 +1,46 @@
+package com.azuriom.azlink.bungee;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.http.server.InjectedHttpServer;
+import io.netty.channel.Channel;
+import net.md_5.bungee.api.ProxyServer;
+
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BungeeInjectedHttpServer extends InjectedHttpServer {
+
+    private final ProxyServer proxy;
+
+    public BungeeInjectedHttpServer(AzLinkPlugin plugin, ProxyServer proxy) {
+        super(plugin);
+
+        this.proxy = proxy;
+    }
+
+    @Override
+    protected Collection<Channel> findServerChannels() throws Exception {
+        Field listenersField = this.proxy.getClass().getDeclaredField("listeners");
+        listenersField.setAccessible(true);
+
+        Collection<?> listeners = (Collection<?>) listenersField.get(this.proxy);
+        int port = this.plugin.getConfig().getHttpPort();
+        List<Channel> channels = new ArrayList<>();
+
+        for (Object listener : new ArrayList<>(listeners)) {
+            Channel channel = (Channel) listener;
+            SocketAddress address = channel.localAddress();
+
+            // Ignore the query channels and the other listeners
+            if (address instanceof InetSocketAddress && ((InetSocketAddress) address).getPort() == port) {
+                channels.add(channel);
+            }
+        }
+
+        return channels;
+    }
+}
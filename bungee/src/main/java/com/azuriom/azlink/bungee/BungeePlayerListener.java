@@ -0,0 +1,28 @@
+package com.azuriom.azlink.bungee;
+
+import com.azuriom.azlink.bungee.command.BungeeCommandSender;
+import com.azuriom.azlink.common.AzLinkPlugin;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.PostLoginEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+
+public class BungeePlayerListener implements Listener {
+
+    private final AzLinkPlugin plugin;
+
+    public BungeePlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerJoin(PostLoginEvent event) {
+        this.plugin.handlePlayerJoin(new BungeeCommandSender(event.getPlayer()));
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerQuit(PlayerDisconnectEvent event) {
+        this.plugin.handlePlayerQuit(new BungeeCommandSender(event.getPlayer()));
+    }
+}
@@ -31,6 +31,15 @@ public class BungeeCommandSender implements CommandSender {
         return UUID.nameUUIDFromBytes(getName().getBytes(StandardCharsets.UTF_8));
     }
 
+    @Override
+    public String getDisplayName() {
+        if (this.sender instanceof ProxiedPlayer) {
+            return ((ProxiedPlayer) this.sender).getDisplayName();
+        }
+
+        return getName();
+    }
+
     @Override
     public void sendMessage(String message) {
         String formatted = ChatColor.translateAlternateColorCodes('&', message);
@@ -13,6 +13,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Stream;
 
 public interface AzLinkPlatform {
@@ -33,12 +34,32 @@ public interface AzLinkPlatform {
 
     Stream<CommandSender> getOnlinePlayers();
 
+    /**
+     * Get if an online player should not be sent to the website, for example when the player is vanished.
+     *
+     * @param player the online player
+     * @return true if the player should be hidden
+     */
+    default boolean isPlayerHidden(CommandSender player) {
+        return false;
+    }
+
     int getMaxPlayers();
 
     default Optional<WorldData> getWorldData() {
         return Optional.empty();
     }
 
+    /**
+     * Get the current TPS of the server. Unlike {@link #getWorldData()}, this method can be called
+     * from any thread.
+     *
+     * @return the current TPS, or an empty optional on proxies
+     */
+    default OptionalDouble getTps() {
+        return OptionalDouble.empty();
+    }
+
     void dispatchConsoleCommand(String command);
 
     default PlatformData getPlatformData() {
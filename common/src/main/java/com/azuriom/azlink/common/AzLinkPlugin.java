@@ -7,13 +7,24 @@ import com.azuriom.azlink.common.data.PlatformData;
 import com.azuriom.azlink.common.data.PlayerData;
 import com.azuriom.azlink.common.data.ServerData;
 import com.azuriom.azlink.common.data.SystemData;
+import com.azuriom.azlink.common.data.WebsiteCommand;
 import com.azuriom.azlink.common.data.WorldData;
 import com.azuriom.azlink.common.gson.InstantAdapter;
+import com.azuriom.azlink.common.gson.WebsiteCommandAdapter;
+import com.azuriom.azlink.common.http.client.CircuitBreaker;
 import com.azuriom.azlink.common.http.client.HttpClient;
+import com.azuriom.azlink.common.http.server.HttpAccessControl;
 import com.azuriom.azlink.common.http.server.HttpServer;
 import com.azuriom.azlink.common.http.server.NettyHttpServer;
+import com.azuriom.azlink.common.http.server.PushVerifier;
 import com.azuriom.azlink.common.logger.LoggerAdapter;
+import com.azuriom.azlink.common.metrics.MetricsRegistry;
+import com.azuriom.azlink.common.outbox.Outbox;
+import com.azuriom.azlink.common.pending.PendingCommandStore;
+import com.azuriom.azlink.common.players.PlayerRegistry;
+import com.azuriom.azlink.common.scheduler.BatchedSyncExecutor;
 import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
+import com.azuriom.azlink.common.tasks.CommandJournal;
 import com.azuriom.azlink.common.tasks.FetcherTask;
 import com.azuriom.azlink.common.users.UserManager;
 import com.azuriom.azlink.common.utils.SystemUtils;
@@ -40,14 +51,23 @@ public class AzLinkPlugin {
 
     private static final Gson GSON = new GsonBuilder()
             .registerTypeAdapter(Instant.class, new InstantAdapter())
+            .registerTypeAdapter(WebsiteCommand.class, new WebsiteCommandAdapter())
             .create();
     private static final Gson GSON_PRETTY_PRINT = new GsonBuilder()
             .setPrettyPrinting()
             .registerTypeAdapter(Instant.class, new InstantAdapter())
+            .registerTypeAdapter(WebsiteCommand.class, new WebsiteCommandAdapter())
             .create();
 
+    private final MetricsRegistry metrics = new MetricsRegistry();
     private final HttpClient httpClient = new HttpClient(this);
     private final UserManager userManager = new UserManager(this);
+    private final Outbox outbox = new Outbox(this);
+    private final PendingCommandStore pendingCommands = new PendingCommandStore(this);
+    private final CommandJournal commandJournal = new CommandJournal(this);
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
+    private final PushVerifier pushVerifier = new PushVerifier();
+    private final HttpAccessControl httpAccessControl = new HttpAccessControl(this);
 
     private final AzLinkCommand command = new AzLinkCommand(this);
 
@@ -63,6 +83,8 @@ public class AzLinkPlugin {
 
     public AzLinkPlugin(AzLinkPlatform platform) {
         this.platform = platform;
+
+        registerMetrics();
     }
 
     public void init() {
@@ -79,6 +101,13 @@ public class AzLinkPlugin {
 
         this.httpServer = createHttpServer();
 
+        // The scheduler of some platforms is only available once the plugin is created
+        if (getScheduler().syncExecutor() instanceof BatchedSyncExecutor) {
+            this.metrics.register(((BatchedSyncExecutor) getScheduler().syncExecutor()).getWaitTimer());
+        }
+
+        this.playerRegistry.synchronize(this.platform.getOnlinePlayers());
+
         // Add a random start delay to prevent important load on shared web hosts
         // caused by many servers sending request at the same time
         LocalDateTime start = LocalDateTime.now()
@@ -86,9 +115,8 @@ public class AzLinkPlugin {
                 .plusMinutes(1)
                 .plusSeconds(1 + (long) (Math.random() * 30));
         long startDelay = Duration.between(LocalDateTime.now(), start).toMillis();
-        long repeatDelay = TimeUnit.MINUTES.toMillis(1);
 
-        getScheduler().scheduleAsyncRepeating(this.fetcherTask, startDelay, repeatDelay, TimeUnit.MILLISECONDS);
+        this.fetcherTask.start(startDelay, TimeUnit.MILLISECONDS);
 
         if (!this.config.isValid()) {
             getLogger().warn("Invalid configuration, please use '/azlink' to setup the plugin.");
@@ -105,8 +133,16 @@ public class AzLinkPlugin {
             getScheduler().executeAsync(updateChecker::checkUpdates);
         }
 
+        this.outbox.load();
+        this.commandJournal.load();
+
+        if (this.config.hasPendingCommands()) {
+            this.pendingCommands.load();
+        }
+
         this.httpClient.verifyStatus()
                 .thenRun(() -> getLogger().info("Successfully connected to " + this.config.getSiteUrl()))
+                .thenRun(this.outbox::flush)
                 .exceptionally(ex -> {
                     getLogger().warn("Unable to verify the website connection: " + ex.getMessage());
 
@@ -125,6 +161,8 @@ public class AzLinkPlugin {
     }
 
     public void shutdown() {
+        this.fetcherTask.stop();
+
         getLogger().info("Shutting down scheduler");
 
         try {
@@ -137,6 +175,11 @@ public class AzLinkPlugin {
             getLogger().info("Stopping HTTP server");
             this.httpServer.stop();
         }
+
+        this.httpClient.close();
+        this.outbox.close();
+        this.pendingCommands.save();
+        this.commandJournal.close();
     }
 
     public void saveConfig() throws IOException {
@@ -154,7 +197,14 @@ public class AzLinkPlugin {
     }
 
     public ServerData getServerData(boolean fullData) {
-        List<PlayerData> players = this.platform.getOnlinePlayers()
+        // Resynchronize the players from time to time, in case an event was missed
+        if (fullData) {
+            this.playerRegistry.synchronize(this.platform.getOnlinePlayers());
+        }
+
+        List<PlayerData> players = this.playerRegistry.getPlayers()
+                .stream()
+                .filter(player -> !this.platform.isPlayerHidden(player))
                 .map(CommandSender::toData)
                 .collect(Collectors.toList());
         int max = this.platform.getMaxPlayers();
@@ -173,6 +223,58 @@ public class AzLinkPlugin {
         return this.fetcherTask.fetch();
     }
 
+    public FetcherTask getFetcherTask() {
+        return this.fetcherTask;
+    }
+
+    /**
+     * Handle a player joining the server, must be called by the platforms.
+     *
+     * @param player the player who joined
+     */
+    public void handlePlayerJoin(CommandSender player) {
+        this.playerRegistry.addPlayer(player);
+
+        if (!this.config.hasPendingCommands()) {
+            return;
+        }
+
+        List<String> commands = this.pendingCommands.remove(player);
+
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        List<WebsiteCommand> websiteCommands = commands.stream()
+                .map(command -> new WebsiteCommand(command, true))
+                .collect(Collectors.toList());
+
+        getLogger().info("Dispatching " + commands.size() + " pending commands for player " + player.getName());
+
+        this.fetcherTask.getDispatchQueue().submit(player.getName(), websiteCommands, name -> player);
+    }
+
+    /**
+     * Handle a player leaving the server, must be called by the platforms.
+     *
+     * @param player the player who left
+     */
+    public void handlePlayerQuit(CommandSender player) {
+        this.playerRegistry.removePlayer(player.getUuid());
+    }
+
+    public PlayerRegistry getPlayerRegistry() {
+        return this.playerRegistry;
+    }
+
+    public PendingCommandStore getPendingCommands() {
+        return this.pendingCommands;
+    }
+
+    public CommandJournal getCommandJournal() {
+        return this.commandJournal;
+    }
+
     public LoggerAdapter getLogger() {
         return this.platform.getLoggerAdapter();
     }
@@ -197,10 +299,49 @@ public class AzLinkPlugin {
         return this.userManager;
     }
 
+    public Outbox getOutbox() {
+        return this.outbox;
+    }
+
+    public PushVerifier getPushVerifier() {
+        return this.pushVerifier;
+    }
+
+    public HttpAccessControl getHttpAccessControl() {
+        return this.httpAccessControl;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return this.metrics;
+    }
+
     protected HttpServer createHttpServer() {
         return new NettyHttpServer(this);
     }
 
+    private void registerMetrics() {
+        this.metrics.gauge("azlink_users_cached", "Number of website users in cache",
+                this.userManager::getUsersCount);
+        this.metrics.gauge("azlink_outbox_pending", "Number of requests waiting to be sent to the website",
+                this.outbox::getPendingCount);
+        this.metrics.gauge("azlink_pending_commands", "Number of commands waiting for offline players to join",
+                this.pendingCommands::getPendingCount);
+        this.metrics.gauge("azlink_commands_queued", "Number of commands waiting to be dispatched",
+                () -> this.fetcherTask.getDispatchQueue().getPendingCommands());
+        this.metrics.gauge("azlink_http_client_circuit_open", "1 if the requests to the website are blocked",
+                () -> this.httpClient.getCircuitBreaker().getState() != CircuitBreaker.State.CLOSED ? 1 : 0);
+        this.metrics.gauge("azlink_http_client_active_requests", "Number of requests to the website being sent",
+                () -> this.httpClient.getRequestExecutor().getActiveCount());
+        this.metrics.gauge("azlink_http_client_queued_requests", "Number of requests to the website waiting for a thread",
+                () -> this.httpClient.getRequestExecutor().getQueuedCount());
+        this.metrics.gauge("azlink_http_server_connections", "Number of open HTTP server connections",
+                this.httpAccessControl::getOpenConnections);
+        this.metrics.gauge("azlink_scheduler_queued_tasks", "Number of tasks waiting in the scheduler",
+                () -> getScheduler().getQueuedTasks());
+        this.metrics.gauge("azlink_tps", "Ticks per second of the server",
+                () -> this.platform.getTps().orElse(-1));
+    }
+
     private double getCpuUsage() {
         try {
             return SystemUtils.getCpuUsage();
@@ -4,6 +4,7 @@ import com.azuriom.azlink.common.AzLinkPlugin;
 import com.azuriom.azlink.common.chat.TextColor;
 import com.azuriom.azlink.common.chat.TextComponent;
 import com.azuriom.azlink.common.data.UserInfo;
+import com.azuriom.azlink.common.http.client.HttpConnectionPool;
 import com.azuriom.azlink.common.users.MoneyAction;
 
 import java.io.IOException;
@@ -137,7 +138,8 @@ public class AzLinkCommand {
         }
 
         if (args.length == 3 && args[0].equalsIgnoreCase("money")) {
-            return this.plugin.getPlatform().getOnlinePlayers()
+            return this.plugin.getPlayerRegistry().getPlayers()
+                    .stream()
                     .map(CommandSender::getName)
                     .filter(name -> startsWithIgnoreCase(name, args[2]))
                     .collect(Collectors.toList());
@@ -204,6 +206,10 @@ public class AzLinkCommand {
             sender.sendMessage(TextComponent.text("You should use https to improve security!", TextColor.GOLD));
         }
 
+        if (!key.equals(this.plugin.getConfig().getSiteKey())) {
+            this.plugin.getOutbox().changeSiteKey(key);
+        }
+
         this.plugin.getConfig().setSiteKey(key);
         this.plugin.getConfig().setSiteUrl(url);
 
@@ -226,6 +232,7 @@ public class AzLinkCommand {
         return this.plugin.getHttpClient()
                 .verifyStatus()
                 .thenRun(() -> sender.sendMessage(TextComponent.text("Linked to the website successfully.", TextColor.GREEN)))
+                .thenRun(() -> sendConnectionsStatus(sender))
                 .thenRun(this.plugin::fetch)
                 .whenComplete((v, ex) -> {
                     if (ex != null) {
@@ -234,6 +241,13 @@ public class AzLinkCommand {
                 });
     }
 
+    private void sendConnectionsStatus(CommandSender sender) {
+        HttpConnectionPool pool = this.plugin.getHttpClient().getConnectionPool();
+        String status = pool.getHits() + " reused, " + pool.getMisses() + " opened, " + pool.getIdleConnections() + " idle";
+
+        sender.sendMessage(TextComponent.text("Website connections: " + status, TextColor.GRAY));
+    }
+
     private static boolean startsWithIgnoreCase(String string, String prefix) {
         if (string.length() < prefix.length()) {
             return false;
@@ -11,6 +11,15 @@ public interface CommandSender {
 
     UUID getUuid();
 
+    /**
+     * Get the display name of this sender, which can be different from the name on some platforms.
+     *
+     * @return the display name
+     */
+    default String getDisplayName() {
+        return getName();
+    }
+
     void sendMessage(String message);
 
     default void sendMessage(TextComponent message) {
@@ -1,5 +1,6 @@
 package com.azuriom.azlink.common.config;
 
+import com.azuriom.azlink.common.http.client.HttpRequestExecutor;
 import com.azuriom.azlink.common.http.server.HttpServer;
 
 public class PluginConfig {
@@ -9,6 +10,22 @@ public class PluginConfig {
     private boolean instantCommands = true;
     private int httpPort = HttpServer.DEFAULT_PORT;
     private boolean checkUpdates = true;
+    private int httpPoolMaxIdle = 4;
+    private int httpPoolIdleTimeout = 4;
+    private boolean compressRequests = false;
+    private int compressionThreshold = 4096;
+    private boolean playersDelta = false;
+    private boolean heartbeat = false;
+    private int httpWorkerThreads = 1;
+    private int httpMaxConnections = 16;
+    private int httpRequestsPerMinute = 30;
+    private int fetchMinInterval = 30;
+    private int fetchMaxInterval = 180;
+    private boolean pendingCommands = false;
+    private boolean playerRegionCommands = false;
+    private int httpClientThreads = 2;
+    private int httpClientQueueSize = 32;
+    private HttpRequestExecutor.RejectionPolicy httpClientRejectionPolicy = HttpRequestExecutor.RejectionPolicy.ABORT;
 
     public PluginConfig() {
         this(null, null);
@@ -51,6 +68,162 @@ public class PluginConfig {
         return this.checkUpdates;
     }
 
+    /**
+     * Get the maximum number of idle keep-alive connections to the website.
+     *
+     * @return the max idle connections, or 0 to disable connections reuse
+     */
+    public int getHttpPoolMaxIdle() {
+        return this.httpPoolMaxIdle;
+    }
+
+    /**
+     * Get the duration in seconds after which an idle connection to the website is closed. It should be
+     * lower than the keep-alive timeout of the web server (5 seconds by default on Apache), as a connection
+     * closed by the server just after a request was sent makes the request fail.
+     *
+     * @return the idle timeout in seconds
+     */
+    public int getHttpPoolIdleTimeout() {
+        return this.httpPoolIdleTimeout;
+    }
+
+    /**
+     * Get if the requests bodies sent to the website should be compressed with gzip.
+     * The website needs to support gzip encoded requests.
+     *
+     * @return true if the requests should be compressed
+     */
+    public boolean hasRequestsCompression() {
+        return this.compressRequests;
+    }
+
+    /**
+     * Get the minimum size in bytes of a request body to compress it.
+     *
+     * @return the compression threshold in bytes
+     */
+    public int getCompressionThreshold() {
+        return this.compressionThreshold;
+    }
+
+    /**
+     * Get if only the players who joined or left since the last request acknowledged by the website
+     * should be sent, instead of all the online players. The website needs to support players delta.
+     *
+     * @return true if the players list should be sent as a delta
+     */
+    public boolean hasPlayersDelta() {
+        return this.playersDelta;
+    }
+
+    /**
+     * Get if a small heartbeat should be sent instead of the server data when the players, the max players
+     * and the platform didn't change since the last request. The website needs to support heartbeats.
+     *
+     * @return true if heartbeats should be sent
+     */
+    public boolean hasHeartbeat() {
+        return this.heartbeat;
+    }
+
+    /**
+     * Get the number of threads handling the HTTP server connections. Not used on proxies,
+     * where the proxy threads are used instead.
+     *
+     * @return the number of HTTP server threads
+     */
+    public int getHttpWorkerThreads() {
+        return this.httpWorkerThreads;
+    }
+
+    /**
+     * Get the maximum number of connections open at the same time on the HTTP server.
+     *
+     * @return the maximum number of connections, or 0 for no limit
+     */
+    public int getHttpMaxConnections() {
+        return this.httpMaxConnections;
+    }
+
+    /**
+     * Get the maximum number of requests per minute an IP address can send to the HTTP server.
+     *
+     * @return the maximum number of requests per minute, or 0 for no limit
+     */
+    public int getHttpRequestsPerMinute() {
+        return this.httpRequestsPerMinute;
+    }
+
+    /**
+     * Get the minimum delay between two requests sending the server data to the website,
+     * used after some activity on the server.
+     *
+     * @return the minimum delay in seconds
+     */
+    public int getFetchMinInterval() {
+        return this.fetchMinInterval;
+    }
+
+    /**
+     * Get the maximum delay between two requests sending the server data to the website,
+     * used when the server is empty.
+     *
+     * @return the maximum delay in seconds
+     */
+    public int getFetchMaxInterval() {
+        return this.fetchMaxInterval;
+    }
+
+    /**
+     * Get if the commands requiring the player to be online should be kept until the next join
+     * of the player, instead of being dispatched immediately when the player is offline.
+     *
+     * @return true if the pending commands are enabled
+     */
+    public boolean hasPendingCommands() {
+        return this.pendingCommands;
+    }
+
+    /**
+     * Get if the commands using a placeholder of an online player should be dispatched on the thread owning
+     * the player on Folia, instead of the global region. Commands dispatched by plugins expecting
+     * the global region, like some economy or permissions plugins, may not work on the region of a player.
+     *
+     * @return true if the player commands should be dispatched on the region of the player
+     */
+    public boolean hasPlayerRegionCommands() {
+        return this.playerRegionCommands;
+    }
+
+    /**
+     * Get the number of threads sending the requests to the website.
+     *
+     * @return the number of HTTP client threads
+     */
+    public int getHttpClientThreads() {
+        return this.httpClientThreads;
+    }
+
+    /**
+     * Get the maximum number of requests waiting for an HTTP client thread.
+     *
+     * @return the maximum number of queued requests
+     */
+    public int getHttpClientQueueSize() {
+        return this.httpClientQueueSize;
+    }
+
+    /**
+     * Get the policy applied to the requests to the website sent while the queue is full.
+     *
+     * @return the rejection policy, abort by default
+     */
+    public HttpRequestExecutor.RejectionPolicy getHttpClientRejectionPolicy() {
+        // Unknown values in the config are read as null
+        return this.httpClientRejectionPolicy != null ? this.httpClientRejectionPolicy : HttpRequestExecutor.RejectionPolicy.ABORT;
+    }
+
     public boolean isValid() {
         return this.siteKey != null && !this.siteKey.isEmpty() && this.siteUrl != null && !this.siteUrl.isEmpty();
     }
@@ -0,0 +1,36 @@
+package com.azuriom.azlink.common.data;
+
+import java.util.List;
+
+/**
+ * Minimal data sent instead of the {@link ServerData} when nothing changed since the last request.
+ */
+public class HeartbeatData {
+
+    private final boolean heartbeat = true;
+    private final String fingerprint;
+    private final String version;
+    private final List<String> acknowledgedCommands;
+
+    public HeartbeatData(String fingerprint, String version) {
+        this(fingerprint, version, null);
+    }
+
+    public HeartbeatData(String fingerprint, String version, List<String> acknowledgedCommands) {
+        this.fingerprint = fingerprint;
+        this.version = version;
+        this.acknowledgedCommands = acknowledgedCommands;
+    }
+
+    public String getFingerprint() {
+        return this.fingerprint;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public List<String> getAcknowledgedCommands() {
+        return this.acknowledgedCommands;
+    }
+}
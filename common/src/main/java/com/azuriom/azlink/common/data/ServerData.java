@@ -15,7 +15,20 @@ public class ServerData {
 
     private final boolean full;
 
+    private final Long sequence;
+    private final Long baseSequence;
+    private final List<PlayerData> joinedPlayers;
+    private final List<PlayerData> leftPlayers;
+
+    private final List<String> acknowledgedCommands;
+
     public ServerData(PlatformData platform, String version, List<PlayerData> players, int maxPlayers, SystemData system, WorldData worlds, boolean full) {
+        this(platform, version, players, maxPlayers, system, worlds, full, null, null, null, null, null);
+    }
+
+    private ServerData(PlatformData platform, String version, List<PlayerData> players, int maxPlayers,
+                       SystemData system, WorldData worlds, boolean full, Long sequence, Long baseSequence,
+                       List<PlayerData> joinedPlayers, List<PlayerData> leftPlayers, List<String> acknowledgedCommands) {
         this.platform = platform;
         this.version = version;
         this.players = players;
@@ -23,6 +36,49 @@ public class ServerData {
         this.system = system;
         this.worlds = worlds;
         this.full = full;
+        this.sequence = sequence;
+        this.baseSequence = baseSequence;
+        this.joinedPlayers = joinedPlayers;
+        this.leftPlayers = leftPlayers;
+        this.acknowledgedCommands = acknowledgedCommands;
+    }
+
+    /**
+     * Create a copy of this data with all the online players, identified by a sequence
+     * the website can acknowledge.
+     *
+     * @param sequence the players list sequence
+     * @return the new server data
+     */
+    public ServerData withPlayersSnapshot(long sequence) {
+        return new ServerData(this.platform, this.version, this.players, this.maxPlayers, this.system,
+                this.worlds, this.full, sequence, null, null, null, this.acknowledgedCommands);
+    }
+
+    /**
+     * Create a copy of this data with only the players who joined or left since the players list
+     * acknowledged by the website.
+     *
+     * @param sequence the players list sequence
+     * @param baseSequence the sequence of the players list acknowledged by the website
+     * @param joinedPlayers the players who joined since the acknowledged list
+     * @param leftPlayers the players who left since the acknowledged list
+     * @return the new server data
+     */
+    public ServerData withPlayersDelta(long sequence, long baseSequence, List<PlayerData> joinedPlayers, List<PlayerData> leftPlayers) {
+        return new ServerData(this.platform, this.version, null, this.maxPlayers, this.system,
+                this.worlds, this.full, sequence, baseSequence, joinedPlayers, leftPlayers, this.acknowledgedCommands);
+    }
+
+    /**
+     * Create a copy of this data with the IDs of the commands dispatched since the last request.
+     *
+     * @param acknowledgedCommands the IDs of the dispatched commands, or null if there is none
+     * @return the new server data
+     */
+    public ServerData withAcknowledgedCommands(List<String> acknowledgedCommands) {
+        return new ServerData(this.platform, this.version, this.players, this.maxPlayers, this.system, this.worlds,
+                this.full, this.sequence, this.baseSequence, this.joinedPlayers, this.leftPlayers, acknowledgedCommands);
     }
 
     public PlatformData getPlatform() {
@@ -52,4 +108,24 @@ public class ServerData {
     public boolean isFull() {
         return this.full;
     }
+
+    public Long getSequence() {
+        return this.sequence;
+    }
+
+    public Long getBaseSequence() {
+        return this.baseSequence;
+    }
+
+    public List<PlayerData> getJoinedPlayers() {
+        return this.joinedPlayers;
+    }
+
+    public List<PlayerData> getLeftPlayers() {
+        return this.leftPlayers;
+    }
+
+    public List<String> getAcknowledgedCommands() {
+        return this.acknowledgedCommands;
+    }
 }
@@ -0,0 +1,48 @@
+package com.azuriom.azlink.common.data;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * A command sent by the website. The website can send the command as a string, or as an object
+ * with additional options.
+ */
+public class WebsiteCommand {
+
+    private final String id;
+    private final String command;
+    @SerializedName("online")
+    private final boolean onlineRequired;
+
+    public WebsiteCommand(String command, boolean onlineRequired) {
+        this(null, command, onlineRequired);
+    }
+
+    public WebsiteCommand(String id, String command, boolean onlineRequired) {
+        this.id = id;
+        this.command = command;
+        this.onlineRequired = onlineRequired;
+    }
+
+    /**
+     * Get the unique ID of this command, used to never dispatch the same command twice.
+     *
+     * @return the ID of the command, or null if the website doesn't send IDs
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    public String getCommand() {
+        return this.command;
+    }
+
+    /**
+     * Get if this command should only be dispatched when the player is online. When the pending commands
+     * are enabled, this command is kept until the next player join if the player is offline.
+     *
+     * @return true if the player must be online
+     */
+    public boolean isOnlineRequired() {
+        return this.onlineRequired;
+    }
+}
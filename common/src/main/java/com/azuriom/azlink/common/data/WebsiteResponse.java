@@ -1,24 +1,97 @@
 package com.azuriom.azlink.common.data;
 
+import com.google.gson.annotations.SerializedName;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class WebsiteResponse {
 
-    private final Map<String, List<String>> commands = new HashMap<>();
+    private final Map<String, List<WebsiteCommand>> commands = new HashMap<>();
     private final List<UserInfo> users = new ArrayList<>();
 
+    @SerializedName("players_sequence")
+    private Long playersSequence;
+    @SerializedName("players_snapshot")
+    private boolean playersSnapshotRequired;
+    @SerializedName("next_fetch")
+    private Integer nextFetch;
+
+    /**
+     * Create a response with commands sent as strings.
+     *
+     * @param commands the commands of each player
+     * @deprecated use {@link #withCommands(Map)} to keep the commands options
+     */
+    @Deprecated
     public WebsiteResponse(Map<String, List<String>> commands) {
-        this.commands.putAll(commands);
+        commands.forEach((player, playerCommands) -> this.commands.put(player, playerCommands.stream()
+                .map(command -> new WebsiteCommand(command, false))
+                .collect(Collectors.toList())));
+    }
+
+    private WebsiteResponse() {
+        // Used by Gson, to keep the default values of missing fields
     }
 
+    public static WebsiteResponse withCommands(Map<String, List<WebsiteCommand>> commands) {
+        WebsiteResponse response = new WebsiteResponse();
+        response.commands.putAll(commands);
+        return response;
+    }
+
+    /**
+     * Get the commands of each player, without their options.
+     *
+     * @return the commands of each player
+     * @deprecated use {@link #getWebsiteCommands()} to get the commands options
+     */
+    @Deprecated
     public Map<String, List<String>> getCommands() {
+        Map<String, List<String>> commands = new HashMap<>();
+
+        this.commands.forEach((player, playerCommands) -> commands.put(player, playerCommands.stream()
+                .map(WebsiteCommand::getCommand)
+                .collect(Collectors.toList())));
+
+        return commands;
+    }
+
+    public Map<String, List<WebsiteCommand>> getWebsiteCommands() {
         return this.commands;
     }
 
     public List<UserInfo> getUsers() {
         return users;
     }
+
+    /**
+     * Get the sequence of the last players list received by the website, when using players delta.
+     *
+     * @return the acknowledged sequence, or null if the website doesn't support players delta
+     */
+    public Long getPlayersSequence() {
+        return this.playersSequence;
+    }
+
+    /**
+     * Get if the website requires the full players list in the next request, instead of a delta.
+     *
+     * @return true if the next request should contain all the online players
+     */
+    public boolean isPlayersSnapshotRequired() {
+        return this.playersSnapshotRequired;
+    }
+
+    /**
+     * Get the delay requested by the website before the next request.
+     *
+     * @return the delay in seconds, or null to let the plugin choose the delay
+     */
+    public Integer getNextFetch() {
+        return this.nextFetch;
+    }
 }
@@ -0,0 +1,71 @@
+package com.azuriom.azlink.common.gson;
+
+import com.azuriom.azlink.common.data.WebsiteCommand;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Read a website command sent as a string, like the old versions of the website,
+ * or as an object with additional options.
+ */
+public class WebsiteCommandAdapter extends TypeAdapter<WebsiteCommand> {
+
+    @Override
+    public void write(JsonWriter out, WebsiteCommand value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("command").value(value.getCommand());
+        out.name("online").value(value.isOnlineRequired());
+        out.endObject();
+    }
+
+    @Override
+    public WebsiteCommand read(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.STRING) {
+            return new WebsiteCommand(in.nextString(), false);
+        }
+
+        if (token != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+
+        String id = null;
+        String command = null;
+        boolean online = false;
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            String name = in.nextName();
+            JsonToken valueToken = in.peek();
+
+            if (valueToken == JsonToken.NULL) {
+                in.nextNull();
+            } else if (name.equals("id") && valueToken != JsonToken.BEGIN_OBJECT && valueToken != JsonToken.BEGIN_ARRAY) {
+                id = in.nextString();
+            } else if (name.equals("command") && valueToken == JsonToken.STRING) {
+                command = in.nextString();
+            } else if (name.equals("online") && valueToken == JsonToken.BOOLEAN) {
+                online = in.nextBoolean();
+            } else {
+                in.skipValue();
+            }
+        }
+
+        in.endObject();
+
+        return command != null ? new WebsiteCommand(id, command, online) : null;
+    }
+}
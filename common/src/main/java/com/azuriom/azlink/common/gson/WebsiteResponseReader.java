@@ -0,0 +1,139 @@
+package com.azuriom.azlink.common.gson;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.data.UserInfo;
+import com.azuriom.azlink.common.data.WebsiteCommand;
+import com.azuriom.azlink.common.data.WebsiteResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Incremental {@link WebsiteResponse} reader, that sends the commands of each player to a handler
+ * as soon as they are read, instead of keeping all the commands in memory.
+ *
+ * <p>The users of the response are also sent to a handler as soon as they are read, so they can be
+ * added before dispatching the commands that may need them. The website should send the users before
+ * the commands, otherwise the commands can only be dispatched once the whole response is read.
+ * When the response can't be read entirely, the handlers are not called for the remaining data,
+ * and the users handler is not called if the users were not read yet.</p>
+ */
+public class WebsiteResponseReader {
+
+    private static final Type USERS_TYPE = new TypeToken<List<UserInfo>>() {}.getType();
+
+    private final BiConsumer<String, List<WebsiteCommand>> commandsHandler;
+    private final Consumer<List<UserInfo>> usersHandler;
+
+    public WebsiteResponseReader(BiConsumer<String, List<WebsiteCommand>> commandsHandler) {
+        this(commandsHandler, users -> {});
+    }
+
+    /**
+     * Create a reader sending the commands and the users to the given handlers.
+     *
+     * @param commandsHandler the handler called with each player name and its commands
+     * @param usersHandler the handler called once with the users, or an empty list if the response has none
+     */
+    public WebsiteResponseReader(BiConsumer<String, List<WebsiteCommand>> commandsHandler,
+                                 Consumer<List<UserInfo>> usersHandler) {
+        this.commandsHandler = commandsHandler;
+        this.usersHandler = usersHandler;
+    }
+
+    /**
+     * Read a website response. The returned response doesn't contain the commands,
+     * as they are sent to the handler.
+     *
+     * @param in the JSON reader
+     * @return the website response, without the commands
+     * @throws IOException if the response can't be read
+     */
+    public WebsiteResponse read(JsonReader in) throws IOException {
+        Gson gson = AzLinkPlugin.getGson();
+        JsonObject others = new JsonObject();
+        boolean usersRead = false;
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            String name = in.nextName();
+
+            if (name.equals("commands")) {
+                readCommands(in);
+            } else if (name.equals("users") && !usersRead) {
+                JsonElement users = gson.fromJson(in, JsonElement.class);
+                List<UserInfo> usersList = users.isJsonArray() ? gson.fromJson(users, USERS_TYPE) : null;
+
+                others.add(name, users);
+                usersRead = true;
+
+                this.usersHandler.accept(usersList != null ? usersList : Collections.emptyList());
+            } else {
+                others.add(name, gson.fromJson(in, JsonElement.class));
+            }
+        }
+
+        in.endObject();
+
+        if (!usersRead) {
+            this.usersHandler.accept(Collections.emptyList());
+        }
+
+        // The other fields are small, they can be read as usual
+        return gson.fromJson(others, WebsiteResponse.class);
+    }
+
+    private void readCommands(JsonReader in) throws IOException {
+        Gson gson = AzLinkPlugin.getGson();
+
+        // Empty PHP arrays are encoded as JSON arrays
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            String player = in.nextName();
+
+            if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                in.skipValue();
+                continue;
+            }
+
+            List<WebsiteCommand> commands = new ArrayList<>();
+
+            in.beginArray();
+
+            while (in.hasNext()) {
+                // Commands can be strings or objects, see WebsiteCommandAdapter
+                WebsiteCommand command = gson.fromJson(in, WebsiteCommand.class);
+
+                if (command != null) {
+                    commands.add(command);
+                }
+            }
+
+            in.endArray();
+
+            if (!commands.isEmpty()) {
+                this.commandsHandler.accept(player, commands);
+            }
+        }
+
+        in.endObject();
+    }
+}
@@ -0,0 +1,143 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Stop sending requests to the website after too many consecutive failures.
+ * Once the open delay is elapsed, a single probe request is sent: other requests wait for it,
+ * and are only sent when the website is available again.
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long baseOpenDuration;
+    private final long maxOpenDuration;
+    private final Supplier<CompletableFuture<?>> probe;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private int openings;
+    private long openUntil;
+    private CompletableFuture<Void> probeFuture;
+
+    /**
+     * Create a new circuit breaker.
+     *
+     * @param failureThreshold the number of consecutive failures to open the circuit
+     * @param baseOpenDuration the delay before the first probe, in milliseconds
+     * @param maxOpenDuration the maximum delay between two probes, in milliseconds
+     * @param probe the request to send to check if the website is available again
+     */
+    public CircuitBreaker(int failureThreshold, long baseOpenDuration, long maxOpenDuration,
+                          Supplier<CompletableFuture<?>> probe) {
+        this.failureThreshold = failureThreshold;
+        this.baseOpenDuration = baseOpenDuration;
+        this.maxOpenDuration = maxOpenDuration;
+        this.probe = probe;
+    }
+
+    /**
+     * Wait until a request can be sent to the website.
+     *
+     * @return a future completed when the request can be sent, or failed with a
+     * {@link CircuitOpenException} when the website is unavailable
+     */
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> future;
+
+        synchronized (this) {
+            if (this.state == State.CLOSED) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            if (this.state == State.HALF_OPEN) {
+                return this.probeFuture;
+            }
+
+            long remaining = this.openUntil - System.currentTimeMillis();
+
+            if (remaining > 0) {
+                return failedFuture(new CircuitOpenException(remaining));
+            }
+
+            this.state = State.HALF_OPEN;
+            this.probeFuture = future = new CompletableFuture<>();
+        }
+
+        sendProbe(future);
+
+        return future;
+    }
+
+    /**
+     * Record a response from the website, which closes the circuit.
+     */
+    public synchronized void recordSuccess() {
+        this.state = State.CLOSED;
+        this.failures = 0;
+        this.openings = 0;
+    }
+
+    /**
+     * Record a request that failed because the website is unavailable.
+     */
+    public synchronized void recordFailure() {
+        if (this.state == State.CLOSED && ++this.failures >= this.failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    private void sendProbe(CompletableFuture<Void> future) {
+        CompletableFuture<?> request;
+
+        try {
+            request = this.probe.get();
+        } catch (RuntimeException e) {
+            request = failedFuture(e);
+        }
+
+        request.whenComplete((v, ex) -> {
+            if (ex == null) {
+                recordSuccess();
+                future.complete(null);
+                return;
+            }
+
+            long retryAfter;
+
+            synchronized (this) {
+                retryAfter = open();
+            }
+
+            future.completeExceptionally(new CircuitOpenException(retryAfter));
+        });
+    }
+
+    private long open() {
+        // Randomize the delay so servers using the same website don't all probe it at the same time
+        long duration = Math.min(this.baseOpenDuration << Math.min(this.openings, 20), this.maxOpenDuration);
+        long delay = duration / 2 + ThreadLocalRandom.current().nextLong(duration / 2 + 1);
+
+        this.state = State.OPEN;
+        this.openings++;
+        this.openUntil = System.currentTimeMillis() + delay;
+
+        return delay;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -0,0 +1,26 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is not sent because the website is considered unavailable.
+ */
+public class CircuitOpenException extends IOException {
+
+    private final long retryAfter;
+
+    public CircuitOpenException(long retryAfter) {
+        super("The website is unavailable, requests are paused for " + Math.max(retryAfter / 1000, 1) + " seconds");
+
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Get the delay before the website availability is checked again.
+     *
+     * @return the delay in milliseconds
+     */
+    public long getRetryAfter() {
+        return this.retryAfter;
+    }
+}
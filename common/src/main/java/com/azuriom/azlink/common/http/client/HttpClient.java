@@ -1,155 +1,382 @@
 package com.azuriom.azlink.common.http.client;
 
 import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.config.PluginConfig;
+import com.azuriom.azlink.common.data.HeartbeatData;
 import com.azuriom.azlink.common.data.ServerData;
 import com.azuriom.azlink.common.data.UserInfo;
+import com.azuriom.azlink.common.data.WebsiteCommand;
 import com.azuriom.azlink.common.data.WebsiteResponse;
+import com.azuriom.azlink.common.gson.WebsiteResponseReader;
+import com.azuriom.azlink.common.metrics.Timer;
 import com.azuriom.azlink.common.users.EditMoneyResult;
-import com.google.gson.JsonObject;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 public class HttpClient {
 
     private static final int CONNECT_TIMEOUT = 5000; // 5 seconds
     private static final int READ_TIMEOUT = 5000; // 5 seconds
 
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long CIRCUIT_OPEN_DURATION = 30_000; // 30 seconds
+    private static final long CIRCUIT_MAX_OPEN_DURATION = 300_000; // 5 minutes
+
+    private static final Pattern ID_PATTERN = Pattern.compile("/\\d+(?=/|$)");
+
     private final AzLinkPlugin plugin;
+    private final HttpConnectionPool connectionPool;
+    private final HttpRequestExecutor requestExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer requestTimer;
 
     public HttpClient(AzLinkPlugin plugin) {
         this.plugin = plugin;
+        this.connectionPool = new HttpConnectionPool(plugin, CONNECT_TIMEOUT, READ_TIMEOUT);
+        this.requestExecutor = new HttpRequestExecutor(plugin);
+        this.circuitBreaker = new CircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_DURATION,
+                CIRCUIT_MAX_OPEN_DURATION, () -> send(RequestMethod.GET, "/azlink", null, null, Collections.emptyMap()));
+        this.requestTimer = plugin.getMetrics().timer("azlink_http_client_request_duration_seconds",
+                "Duration of the requests to the website", "endpoint", "outcome");
     }
 
+    /**
+     * Check if the website is available. This request is never blocked by the circuit breaker,
+     * and closes it when it succeeds.
+     *
+     * @return a future completed when the website answered successfully
+     */
     public CompletableFuture<Void> verifyStatus() {
-        return request(RequestMethod.GET, "/azlink", null);
+        return this.<Void>send(RequestMethod.GET, "/azlink", null, null, Collections.emptyMap())
+                .whenComplete((v, ex) -> recordResult(ex));
     }
 
+    /**
+     * Register a user on the website, through the outbox so it's not lost when the website is unavailable.
+     *
+     * @see com.azuriom.azlink.common.outbox.Outbox#registerUser(String, String, UUID, String, InetAddress)
+     */
     public CompletableFuture<Void> registerUser(String name, String email, UUID uuid, String password, InetAddress address) {
-        JsonObject params = new JsonObject();
-        params.addProperty("name", name);
-        params.addProperty("email", email);
-        params.addProperty("game_id", uuid.toString());
-        params.addProperty("password", password);
-        params.addProperty("ip", address != null ? address.getHostAddress() : null);
-
-        return request(RequestMethod.POST, "/azlink/register", params);
+        return this.plugin.getOutbox().registerUser(name, email, uuid, password, address);
     }
 
+    /**
+     * Update the email of a user on the website, through the outbox.
+     *
+     * @see com.azuriom.azlink.common.outbox.Outbox#updateEmail(UUID, String)
+     */
     public CompletableFuture<Void> updateEmail(UUID uuid, String email) {
-        JsonObject params = new JsonObject();
-        params.addProperty("game_id", uuid.toString());
-        params.addProperty("email", email);
-
-        return request(RequestMethod.POST, "/azlink/email", params);
+        return this.plugin.getOutbox().updateEmail(uuid, email);
     }
 
+    /**
+     * Update the password of a user on the website, through the outbox.
+     *
+     * @see com.azuriom.azlink.common.outbox.Outbox#updatePassword(UUID, String)
+     */
     public CompletableFuture<Void> updatePassword(UUID uuid, String password) {
-        JsonObject params = new JsonObject();
-        params.addProperty("game_id", uuid.toString());
-        params.addProperty("password", password);
-
-        return request(RequestMethod.POST, "/azlink/password", params);
+        return this.plugin.getOutbox().updatePassword(uuid, password);
     }
 
+    /**
+     * Edit the money of a user on the website, through the outbox.
+     *
+     * @see com.azuriom.azlink.common.outbox.Outbox#editMoney(UserInfo, String, double)
+     */
     public CompletableFuture<EditMoneyResult> editMoney(UserInfo user, String action, double amount) {
-        String endpoint = "/azlink/user/" + user.getId() + "/money/" + action;
-        JsonObject params = new JsonObject();
-        params.addProperty("amount", amount);
-
-        return request(RequestMethod.POST, endpoint, params, EditMoneyResult.class);
+        return this.plugin.getOutbox().editMoney(user, action, amount);
     }
 
     public CompletableFuture<WebsiteResponse> postData(ServerData data) {
         return request(RequestMethod.POST, "/azlink", data, WebsiteResponse.class);
     }
 
+    /**
+     * Send the server data to the website, and send the commands of each player to the given handler
+     * as soon as they are read from the response.
+     *
+     * @param data the server data
+     * @param commandsHandler the handler called with each player name and its commands, from the request thread
+     * @param usersHandler the handler called with the users, from the request thread
+     * @return the website response, without the commands
+     */
+    public CompletableFuture<WebsiteResponse> postData(ServerData data, BiConsumer<String, List<WebsiteCommand>> commandsHandler,
+                                                       Consumer<List<UserInfo>> usersHandler) {
+        WebsiteResponseReader reader = new WebsiteResponseReader(commandsHandler, usersHandler);
+
+        return request(RequestMethod.POST, "/azlink", data, reader::read);
+    }
+
+    /**
+     * Tell the website the server data didn't change since the last request, and send the
+     * commands of each player to the given handler.
+     *
+     * @param data the heartbeat data
+     * @param commandsHandler the handler called with each player name and its commands, from the request thread
+     * @param usersHandler the handler called with the users, from the request thread
+     * @return the website response, without the commands
+     */
+    public CompletableFuture<WebsiteResponse> postHeartbeat(HeartbeatData data, BiConsumer<String, List<WebsiteCommand>> commandsHandler,
+                                                            Consumer<List<UserInfo>> usersHandler) {
+        WebsiteResponseReader reader = new WebsiteResponseReader(commandsHandler, usersHandler);
+
+        return request(RequestMethod.POST, "/azlink", data, reader::read);
+    }
+
     public CompletableFuture<Void> request(RequestMethod method, String endpoint, Object params) {
         return request(method, endpoint, params, Void.class);
     }
 
     public <T> CompletableFuture<T> request(RequestMethod method, String endpoint, Object params, Class<T> clazz) {
-        String body = AzLinkPlugin.getGson().toJson(params);
+        return request(method, endpoint, params, jsonReader(clazz));
+    }
+
+    public <T> CompletableFuture<T> request(RequestMethod method, String endpoint, Object params, ResponseReader<T> reader) {
+        return request(method, endpoint, params, reader, RetryPolicy.NONE);
+    }
+
+    /**
+     * Send a request to the website API, unless the circuit breaker is open, and send it again
+     * according to the retry policy when it fails.
+     *
+     * @param method the HTTP method
+     * @param endpoint the API endpoint, relative to the API root
+     * @param params the request body, or null for no body
+     * @param reader the response reader, or null to ignore the response
+     * @param retryPolicy the retry policy
+     * @param <T> the response type
+     * @return a future completed with the response
+     */
+    public <T> CompletableFuture<T> request(RequestMethod method, String endpoint, Object params,
+                                            ResponseReader<T> reader, RetryPolicy retryPolicy) {
+        return request(method, endpoint, params, reader, retryPolicy, Collections.emptyMap());
+    }
+
+    /**
+     * Send a request to the website API with additional headers.
+     *
+     * @param method the HTTP method
+     * @param endpoint the API endpoint, relative to the API root
+     * @param params the request body, or null for no body
+     * @param reader the response reader, or null to ignore the response
+     * @param retryPolicy the retry policy
+     * @param headers the additional request headers
+     * @param <T> the response type
+     * @return a future completed with the response
+     * @see #request(RequestMethod, String, Object, ResponseReader, RetryPolicy)
+     */
+    public <T> CompletableFuture<T> request(RequestMethod method, String endpoint, Object params,
+                                            ResponseReader<T> reader, RetryPolicy retryPolicy,
+                                            Map<String, String> headers) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        execute(future, 1, retryPolicy, () -> send(method, endpoint, params, reader, headers));
+
+        return future;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    private <T> void execute(CompletableFuture<T> future, int attempt, RetryPolicy retryPolicy,
+                             Supplier<CompletableFuture<T>> request) {
+        this.circuitBreaker.acquire()
+                .thenCompose(v -> request.get())
+                .whenComplete((result, ex) -> {
+                    Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+                    // A rejected request was never sent, it doesn't tell anything about the website
+                    if (!(error instanceof CircuitOpenException) && !(error instanceof RejectedExecutionException)) {
+                        recordResult(error);
+                    }
+
+                    if (error == null) {
+                        future.complete(result);
+                        return;
+                    }
+
+                    if (!retryPolicy.shouldRetry(attempt, error)) {
+                        future.completeExceptionally(ex instanceof CompletionException ? ex : new CompletionException(ex));
+                        return;
+                    }
+
+                    long delay = retryPolicy.getDelay(attempt);
+
+                    this.plugin.getScheduler().scheduleAsyncLater(
+                            () -> execute(future, attempt + 1, retryPolicy, request), delay, TimeUnit.MILLISECONDS);
+                });
+    }
+
+    private void recordResult(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        // Client errors mean the website is available, only network and server errors are failures
+        if (cause instanceof IOException
+                && (!(cause instanceof HttpStatusException) || ((HttpStatusException) cause).isServerError())) {
+            this.circuitBreaker.recordFailure();
+        } else {
+            this.circuitBreaker.recordSuccess();
+        }
+    }
+
+    private <T> CompletableFuture<T> send(RequestMethod method, String endpoint, Object params,
+                                          ResponseReader<T> reader, Map<String, String> headers) {
+        return this.requestExecutor.submit(() -> {
+            long start = System.nanoTime();
+            String outcome = "error";
 
-        return CompletableFuture.supplyAsync(() -> {
             try {
-                return rawRequest(method, endpoint, body, clazz);
+                T result = rawRequest(method, endpoint, params, reader, headers);
+                outcome = "success";
+                return result;
+            } catch (HttpStatusException e) {
+                outcome = "http_error";
+                throw new CompletionException(e);
             } catch (IOException e) {
                 throw new CompletionException(e);
+            } finally {
+                this.requestTimer.recordSince(start, metricsEndpoint(endpoint), outcome);
             }
-        }, this.plugin.getScheduler().asyncExecutor());
+        });
     }
 
-    private <T> T rawRequest(RequestMethod method, String endpoint, String body, Class<T> clazz)
-            throws IOException {
-        HttpURLConnection conn = prepareConnection(method, endpoint);
+    private <T> T rawRequest(RequestMethod method, String endpoint, Object params,
+                             ResponseReader<T> reader, Map<String, String> headers) throws IOException {
+        String baseUrl = this.plugin.getConfig().getSiteUrl();
+        URL url = URI.create(baseUrl + "/api" + endpoint).toURL();
+        RequestBody body = method != RequestMethod.GET && params != null ? out -> writeJson(out, params) : null;
+
+        HttpResponse response = this.connectionPool.execute(url, method.name(), prepareHeaders(headers), body, getCompressionThreshold());
+
+        try (InputStream in = decodeBody(response)) {
+            int status = response.getStatus();
 
-        if (method != RequestMethod.GET && body != null && !body.isEmpty()) {
-            conn.setDoOutput(true);
+            if (status >= 400) {
+                String info = status == 401 || status == 403
+                        ? ". Try to do again the link command given on the admin panel." : "";
 
-            try (OutputStream out = conn.getOutputStream()) {
-                out.write(body.getBytes(StandardCharsets.UTF_8));
+                throw new HttpStatusException(status, "Unexpected HTTP error " + status + info);
             }
-        }
 
-        int status = conn.getResponseCode();
+            if (status >= 300) {
+                String dest = response.getHeader("Location");
 
-        if (status >= 400) {
-            String info = status == 401 || status == 403
-                    ? ". Try to do again the link command given on the admin panel." : "";
+                throw new HttpStatusException(status, "Unexpected redirect status - " + status + ": " + dest);
+            }
 
-            throw new IOException("Unexpected HTTP error " + status + info);
-        }
+            if (reader == null) {
+                return null;
+            }
 
-        if (status >= 300) {
-            String dest = conn.getHeaderField("Location");
+            try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                T result = reader.read(AzLinkPlugin.getGson().newJsonReader(bufferedReader));
 
-            throw new IOException("Unexpected redirect status - " + status + ": " + dest);
+                if (result == null) {
+                    throw new IllegalStateException("Empty JSON response from API.");
+                }
+
+                return result;
+            }
         }
+    }
 
+    private static String metricsEndpoint(String endpoint) {
+        // Replace the users IDs, to keep a small number of endpoints in the metrics
+        return ID_PATTERN.matcher(endpoint).replaceAll("/{id}");
+    }
+
+    private static <T> ResponseReader<T> jsonReader(Class<T> clazz) {
         if (clazz == null || clazz == Void.class) {
             return null;
         }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            T response = AzLinkPlugin.getGson().fromJson(reader, clazz);
+        return in -> AzLinkPlugin.getGson().fromJson(in, clazz);
+    }
+
+    private int getCompressionThreshold() {
+        PluginConfig config = this.plugin.getConfig();
 
-            if (response == null) {
-                throw new IllegalStateException("Empty JSON response from API.");
-            }
+        return config.hasRequestsCompression() ? Math.max(config.getCompressionThreshold(), 0) : -1;
+    }
+
+    private static void writeJson(OutputStream out, Object params) throws IOException {
+        // Serialize directly to the connection, without creating the whole JSON string in memory
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Gson gson = AzLinkPlugin.getGson();
+
+        gson.toJson(params, params.getClass(), gson.newJsonWriter(writer));
+        writer.flush();
+    }
+
+    private static InputStream decodeBody(HttpResponse response) throws IOException {
+        String encoding = response.getHeader("Content-Encoding");
 
-            return response;
+        if (encoding != null && encoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(response.getBody());
         }
+
+        return response.getBody();
     }
 
-    private HttpURLConnection prepareConnection(RequestMethod method, String endpoint) throws IOException {
-        String baseUrl = this.plugin.getConfig().getSiteUrl();
+    private Map<String, String> prepareHeaders(Map<String, String> extraHeaders) {
         String version = this.plugin.getPlatform().getPluginVersion();
         String token = this.plugin.getConfig().getSiteKey();
-        URL url = URI.create(baseUrl + "/api" + endpoint).toURL();
 
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setUseCaches(false);
-        conn.setInstanceFollowRedirects(false); // POST requests are redirected as GET requests
-        conn.setConnectTimeout(CONNECT_TIMEOUT);
-        conn.setReadTimeout(READ_TIMEOUT);
-        conn.setRequestMethod(method.name());
-        conn.addRequestProperty("Accept", "application/json");
-        conn.addRequestProperty("Azuriom-Link-Token", token);
-        conn.addRequestProperty("Content-Type", "application/json; charset=utf-8");
-        conn.addRequestProperty("User-Agent", "AzLink java v" + version);
-
-        return conn;
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept", "application/json");
+        headers.put("Accept-Encoding", "gzip");
+        headers.put("Azuriom-Link-Token", token);
+        headers.put("Content-Type", "application/json; charset=utf-8");
+        headers.put("User-Agent", "AzLink java v" + version);
+        headers.putAll(extraHeaders);
+
+        return headers;
+    }
+
+    public HttpConnectionPool getConnectionPool() {
+        return this.connectionPool;
+    }
+
+    public HttpRequestExecutor getRequestExecutor() {
+        return this.requestExecutor;
+    }
+
+    public void close() {
+        this.requestExecutor.shutdown();
+        this.connectionPool.close();
+    }
+
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+
+        T read(JsonReader reader) throws IOException;
     }
 
     public enum RequestMethod {
@@ -0,0 +1,181 @@
+package com.azuriom.azlink.common.http.client;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A single HTTP/1.1 connection to the website, that can be reused for multiple requests.
+ */
+class HttpConnection {
+
+    private final HttpConnectionPool pool;
+    private final String route;
+    private final String host;
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    private long lastUsed = System.currentTimeMillis();
+    private long keepAliveUntil = Long.MAX_VALUE;
+    private int requests;
+    private boolean requestSent;
+
+    private HttpConnection(HttpConnectionPool pool, String route, String host, Socket socket) throws IOException {
+        this.pool = pool;
+        this.route = route;
+        this.host = host;
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    static HttpConnection open(HttpConnectionPool pool, URL url, int connectTimeout, int readTimeout) throws IOException {
+        boolean https = url.getProtocol().equals("https");
+        String host = url.getHost();
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+
+        Socket socket = new Socket();
+
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(host, port), connectTimeout);
+            socket.setSoTimeout(readTimeout);
+
+            if (https) {
+                // The default factory shares its session cache, so TLS sessions are resumed on new connections
+                SSLSocket sslSocket = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                        .createSocket(socket, host, port, true);
+                SSLParameters parameters = sslSocket.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(parameters);
+                sslSocket.startHandshake();
+
+                socket = sslSocket;
+            }
+
+            String hostHeader = port == url.getDefaultPort() ? host : host + ':' + port;
+
+            return new HttpConnection(pool, routeOf(url), hostHeader, socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    static String routeOf(URL url) {
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+
+        return url.getProtocol() + "://" + url.getHost() + ':' + port;
+    }
+
+    HttpResponse execute(String method, String path, Map<String, String> headers, RequestBody body, int compressionThreshold)
+            throws IOException {
+        StringBuilder head = new StringBuilder(256)
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(this.host).append("\r\n");
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+
+        this.requests++;
+        this.requestSent = false;
+
+        if (body != null) {
+            RequestOutputStream bodyStream = new RequestOutputStream(this.out, head, compressionThreshold);
+
+            body.writeTo(bodyStream);
+            bodyStream.finish();
+        } else {
+            head.append("\r\n");
+
+            this.out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            this.out.flush();
+        }
+
+        this.requestSent = true;
+
+        return HttpResponse.read(this, this.in, this.pool);
+    }
+
+    /**
+     * Check if the server closed this connection while it was idle in the pool.
+     */
+    boolean isStale() {
+        if (this.socket.isClosed() || this.socket.isInputShutdown() || this.socket.isOutputShutdown()) {
+            return true;
+        }
+
+        try {
+            int timeout = this.socket.getSoTimeout();
+
+            try {
+                this.socket.setSoTimeout(1);
+
+                // An idle connection should not have anything to read, the read should time out
+                this.in.read();
+
+                return true;
+            } finally {
+                this.socket.setSoTimeout(timeout);
+            }
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    void close() {
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    String getRoute() {
+        return this.route;
+    }
+
+    boolean isReused() {
+        return this.requests > 1;
+    }
+
+    /**
+     * Get if the last request was entirely written to the server. When it wasn't, the server
+     * could not have handled it, so it can be sent again.
+     */
+    boolean isRequestSent() {
+        return this.requestSent;
+    }
+
+    long getLastUsed() {
+        return this.lastUsed;
+    }
+
+    void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+
+    long getKeepAliveUntil() {
+        return this.keepAliveUntil;
+    }
+
+    void setKeepAliveUntil(long keepAliveUntil) {
+        this.keepAliveUntil = keepAliveUntil;
+    }
+}
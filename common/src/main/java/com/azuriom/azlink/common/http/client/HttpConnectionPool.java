@@ -0,0 +1,194 @@
+package com.azuriom.azlink.common.http.client;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keep-alive connections pool, to avoid a new TCP and TLS handshake for each request to the website.
+ *
+ * <p>The connections are opened directly to the website: unlike {@link java.net.HttpURLConnection},
+ * the HTTP proxies from the {@code http.proxyHost} and {@code https.proxyHost} system properties are
+ * not used. SOCKS proxies are still used, as they are applied by the sockets.</p>
+ */
+public class HttpConnectionPool {
+
+    private final Deque<HttpConnection> idleConnections = new ArrayDeque<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicBoolean proxyWarned = new AtomicBoolean();
+
+    private final AzLinkPlugin plugin;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public HttpConnectionPool(AzLinkPlugin plugin, int connectTimeout, int readTimeout) {
+        this.plugin = plugin;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    HttpResponse execute(URL url, String method, Map<String, String> headers, RequestBody body, int compressionThreshold)
+            throws IOException {
+        HttpConnection connection = acquire(url);
+
+        try {
+            return connection.execute(method, url.getFile(), headers, body, compressionThreshold);
+        } catch (IOException e) {
+            connection.close();
+
+            // Once the request was entirely written, the server may have handled it, even without
+            // response, so sending it again could apply a non-idempotent request twice
+            if (!connection.isReused() || (connection.isRequestSent() && !method.equals("GET"))) {
+                throw e;
+            }
+        }
+
+        // The server closed the connection while it was idle, try again with a new one.
+        // The request was counted as a hit, but it finally needed a new connection.
+        this.hits.decrementAndGet();
+        this.misses.incrementAndGet();
+
+        HttpConnection newConnection = HttpConnection.open(this, url, this.connectTimeout, this.readTimeout);
+
+        try {
+            return newConnection.execute(method, url.getFile(), headers, body, compressionThreshold);
+        } catch (IOException e) {
+            newConnection.close();
+            throw e;
+        }
+    }
+
+    void release(HttpConnection connection, boolean reusable) {
+        int maxIdle = this.plugin.getConfig().getHttpPoolMaxIdle();
+
+        if (!reusable || maxIdle <= 0) {
+            connection.close();
+            return;
+        }
+
+        connection.setLastUsed(System.currentTimeMillis());
+
+        List<HttpConnection> evicted = new ArrayList<>();
+
+        synchronized (this.idleConnections) {
+            this.idleConnections.addFirst(connection);
+
+            while (this.idleConnections.size() > maxIdle) {
+                evicted.add(this.idleConnections.removeLast());
+            }
+        }
+
+        evicted.forEach(HttpConnection::close);
+    }
+
+    private HttpConnection acquire(URL url) throws IOException {
+        String route = HttpConnection.routeOf(url);
+
+        while (true) {
+            HttpConnection connection = pollIdle(route);
+
+            if (connection == null) {
+                break;
+            }
+
+            if (!connection.isStale()) {
+                this.hits.incrementAndGet();
+
+                return connection;
+            }
+
+            connection.close();
+        }
+
+        this.misses.incrementAndGet();
+
+        warnIgnoredProxy(url);
+
+        return HttpConnection.open(this, url, this.connectTimeout, this.readTimeout);
+    }
+
+    private void warnIgnoredProxy(URL url) {
+        String proxyHost = System.getProperty(url.getProtocol() + ".proxyHost");
+
+        if (proxyHost != null && !proxyHost.isEmpty() && this.proxyWarned.compareAndSet(false, true)) {
+            this.plugin.getLogger().warn("The HTTP proxy " + proxyHost + " is not used for the requests to the website.");
+        }
+    }
+
+    private HttpConnection pollIdle(String route) {
+        long now = System.currentTimeMillis();
+        long idleTimeout = TimeUnit.SECONDS.toMillis(this.plugin.getConfig().getHttpPoolIdleTimeout());
+        List<HttpConnection> expired = new ArrayList<>();
+        HttpConnection result = null;
+
+        synchronized (this.idleConnections) {
+            Iterator<HttpConnection> iterator = this.idleConnections.iterator();
+
+            while (iterator.hasNext()) {
+                HttpConnection connection = iterator.next();
+
+                if (now - connection.getLastUsed() > idleTimeout || now >= connection.getKeepAliveUntil()) {
+                    iterator.remove();
+                    expired.add(connection);
+                    continue;
+                }
+
+                if (result == null && connection.getRoute().equals(route)) {
+                    iterator.remove();
+                    result = connection;
+                }
+            }
+        }
+
+        expired.forEach(HttpConnection::close);
+
+        return result;
+    }
+
+    public void close() {
+        List<HttpConnection> connections;
+
+        synchronized (this.idleConnections) {
+            connections = new ArrayList<>(this.idleConnections);
+            this.idleConnections.clear();
+        }
+
+        connections.forEach(HttpConnection::close);
+    }
+
+    /**
+     * Get the number of requests that reused an idle connection.
+     *
+     * @return the pool hits count
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of requests that required to open a new connection.
+     *
+     * @return the pool misses count
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public int getIdleConnections() {
+        synchronized (this.idleConnections) {
+            return this.idleConnections.size();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.azuriom.azlink.common.http.client;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.config.PluginConfig;
+import com.azuriom.azlink.common.metrics.Counter;
+import com.azuriom.azlink.common.scheduler.ThreadFactoryBuilder;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool executing the blocking requests to the website, so a slow website can't use
+ * all the threads of the shared async pool of the server. The pool is created on the first request,
+ * once the config is loaded.
+ */
+public class HttpRequestExecutor {
+
+    private final AzLinkPlugin plugin;
+    private final Counter rejectedRequests;
+    private final Counter callerRunsRequests;
+
+    private ThreadPoolExecutor executor;
+    private boolean shutdown;
+
+    public HttpRequestExecutor(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+        this.rejectedRequests = plugin.getMetrics().counter("azlink_http_client_rejected_total",
+                "Number of requests to the website rejected because too many requests were waiting");
+        this.callerRunsRequests = plugin.getMetrics().counter("azlink_http_client_caller_runs_total",
+                "Number of requests to the website sent from the calling thread because the queue was full");
+    }
+
+    /**
+     * Execute a request in the pool. When the queue is full, the rejection policy from
+     * the config is applied.
+     *
+     * @param request the blocking request
+     * @param <T> the response type
+     * @return a future completed with the response, or with a {@link RejectedExecutionException}
+     * when the request was rejected
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> request) {
+        RequestTask<T> task = new RequestTask<>(request);
+
+        try {
+            getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.reject(e);
+        }
+
+        return task.future;
+    }
+
+    /**
+     * Get the number of threads currently sending a request.
+     *
+     * @return the number of active threads
+     */
+    public int getActiveCount() {
+        ThreadPoolExecutor executor = this.executor;
+
+        return executor != null ? executor.getActiveCount() : 0;
+    }
+
+    /**
+     * Get the number of requests waiting for a thread.
+     *
+     * @return the number of queued requests
+     */
+    public int getQueuedCount() {
+        ThreadPoolExecutor executor = this.executor;
+
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    /**
+     * Get the number of requests failed because the queue was full, since the plugin started.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejectedCount() {
+        return this.rejectedRequests.get();
+    }
+
+    /**
+     * Get the number of requests sent from the calling thread because the queue was full,
+     * with the {@link RejectionPolicy#CALLER_RUNS} policy, since the plugin started.
+     *
+     * @return the number of requests sent from the calling thread
+     */
+    public long getCallerRunsCount() {
+        return this.callerRunsRequests.get();
+    }
+
+    public synchronized void shutdown() {
+        this.shutdown = true;
+
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (this.shutdown) {
+            throw new RejectedExecutionException("The HTTP client is closed");
+        }
+
+        if (this.executor == null) {
+            PluginConfig config = this.plugin.getConfig();
+            int threads = Math.max(config.getHttpClientThreads(), 1);
+            int queueSize = Math.max(config.getHttpClientQueueSize(), 1);
+
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    new ThreadFactoryBuilder().name("azlink-http-client-%t").daemon(),
+                    createRejectionHandler(config.getHttpClientRejectionPolicy()));
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        return this.executor;
+    }
+
+    private RejectedExecutionHandler createRejectionHandler(RejectionPolicy policy) {
+        return (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                this.rejectedRequests.increment();
+
+                throw new RejectedExecutionException("The HTTP client is closed");
+            }
+
+            switch (policy) {
+                case CALLER_RUNS:
+                    // The request is still sent, so it is not counted as rejected
+                    this.callerRunsRequests.increment();
+
+                    runnable.run();
+                    return;
+                case DISCARD_OLDEST:
+                    Runnable oldest = executor.getQueue().poll();
+
+                    if (oldest instanceof RequestTask) {
+                        this.rejectedRequests.increment();
+
+                        ((RequestTask<?>) oldest).reject(new RejectedExecutionException("Too many requests to the website, discarded for a newer one"));
+                    }
+
+                    executor.execute(runnable);
+                    return;
+                case ABORT:
+                default:
+                    this.rejectedRequests.increment();
+
+                    throw new RejectedExecutionException("Too many requests waiting for the website");
+            }
+        };
+    }
+
+    /**
+     * The policy applied when a request is sent while the queue of the requests is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Fail the new request.
+         */
+        @SerializedName("abort")
+        ABORT,
+        /**
+         * Send the new request from the thread sending it, which might be the main thread.
+         */
+        @SerializedName("caller-runs")
+        CALLER_RUNS,
+        /**
+         * Fail the oldest queued request, and queue the new one.
+         */
+        @SerializedName("discard-oldest")
+        DISCARD_OLDEST
+    }
+
+    private static final class RequestTask<T> implements Runnable {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Supplier<T> request;
+
+        public RequestTask(Supplier<T> request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.future.complete(this.request.get());
+            } catch (CompletionException e) {
+                this.future.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            } catch (Throwable t) {
+                this.future.completeExceptionally(t);
+            }
+        }
+
+        public void reject(RejectedExecutionException e) {
+            this.future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A response read from a {@link HttpConnection}. Closing the body releases the connection,
+ * so it can be reused when the whole body has been read.
+ */
+class HttpResponse {
+
+    private static final int MAX_LINE_LENGTH = 8192;
+    private static final int MAX_DRAIN_LENGTH = 64 * 1024;
+
+    private final int status;
+    private final Map<String, String> headers;
+    private final InputStream body;
+
+    private HttpResponse(int status, Map<String, String> headers, InputStream body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    static HttpResponse read(HttpConnection connection, InputStream in, HttpConnectionPool pool) throws IOException {
+        String statusLine;
+        int status;
+        Map<String, String> headers;
+
+        // Skip informational responses, like 100 Continue
+        do {
+            statusLine = readLine(in);
+
+            if (statusLine == null) {
+                throw new EOFException("Connection closed by the server");
+            }
+
+            status = parseStatus(statusLine);
+            headers = readHeaders(in);
+        } while (status < 200);
+
+        String connectionHeader = headers.getOrDefault("Connection", "").toLowerCase(Locale.ROOT);
+        boolean keepAlive = statusLine.startsWith("HTTP/1.1")
+                ? !connectionHeader.contains("close")
+                : connectionHeader.contains("keep-alive");
+
+        String keepAliveHeader = headers.get("Keep-Alive");
+        if (keepAliveHeader != null) {
+            long timeout = parseKeepAliveTimeout(keepAliveHeader);
+
+            if (timeout > 0) {
+                connection.setKeepAliveUntil(System.currentTimeMillis() + timeout * 1000);
+            }
+        }
+
+        ResponseBody body;
+        String transferEncoding = headers.get("Transfer-Encoding");
+        String contentLength = headers.get("Content-Length");
+
+        if (status == 204 || status == 304) {
+            body = new ResponseBody(connection, pool, in, 0, keepAlive);
+        } else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+            body = new ResponseBody(connection, pool, in, ResponseBody.CHUNKED, keepAlive);
+        } else if (contentLength != null) {
+            body = new ResponseBody(connection, pool, in, Long.parseLong(contentLength.trim()), keepAlive);
+        } else {
+            // Body delimited by the end of the connection, it can't be reused
+            body = new ResponseBody(connection, pool, in, ResponseBody.UNTIL_CLOSE, false);
+        }
+
+        return new HttpResponse(status, headers, body);
+    }
+
+    int getStatus() {
+        return this.status;
+    }
+
+    String getHeader(String name) {
+        return this.headers.get(name);
+    }
+
+    InputStream getBody() {
+        return this.body;
+    }
+
+    private static int parseStatus(String statusLine) throws IOException {
+        String[] parts = statusLine.split(" ", 3);
+
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+
+        try {
+            return Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+    }
+
+    private static long parseKeepAliveTimeout(String header) {
+        for (String part : header.split(",")) {
+            String[] param = part.trim().split("=", 2);
+
+            if (param.length == 2 && param[0].trim().equalsIgnoreCase("timeout")) {
+                try {
+                    return Long.parseLong(param[1].trim());
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static Map<String, String> readHeaders(InputStream in) throws IOException {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int separator = line.indexOf(':');
+
+            if (separator > 0) {
+                headers.merge(line.substring(0, separator).trim(), line.substring(separator + 1).trim(),
+                        (v1, v2) -> v1 + ", " + v2);
+            }
+        }
+
+        return headers;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                return line.size() > 0 ? new String(line.toByteArray(), StandardCharsets.ISO_8859_1) : null;
+            }
+
+            if (line.size() >= MAX_LINE_LENGTH) {
+                throw new IOException("HTTP header line too long");
+            }
+
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        return new String(line.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static class ResponseBody extends InputStream {
+
+        private static final long CHUNKED = -1;
+        private static final long UNTIL_CLOSE = -2;
+
+        private final HttpConnection connection;
+        private final HttpConnectionPool pool;
+        private final InputStream in;
+        private final boolean chunked;
+        private final boolean keepAlive;
+
+        private long remaining;
+        private boolean chunkStarted;
+        private boolean eof;
+        private boolean closed;
+
+        private ResponseBody(HttpConnection connection, HttpConnectionPool pool, InputStream in, long length, boolean keepAlive) {
+            this.connection = connection;
+            this.pool = pool;
+            this.in = in;
+            this.chunked = length == CHUNKED;
+            this.keepAlive = keepAlive;
+            this.remaining = this.chunked ? 0 : length;
+            this.eof = length == 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.closed) {
+                throw new IOException("Response body closed");
+            }
+
+            if (this.eof || len == 0) {
+                return this.eof ? -1 : 0;
+            }
+
+            if (this.remaining == UNTIL_CLOSE) {
+                int read = this.in.read(b, off, len);
+
+                this.eof = read == -1;
+
+                return read;
+            }
+
+            if (this.chunked && this.remaining == 0 && !nextChunk()) {
+                return -1;
+            }
+
+            int read = this.in.read(b, off, (int) Math.min(len, this.remaining));
+
+            if (read == -1) {
+                throw new EOFException("Unexpected end of response body");
+            }
+
+            this.remaining -= read;
+
+            if (!this.chunked && this.remaining == 0) {
+                this.eof = true;
+            }
+
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (this.eof || this.closed) {
+                return 0;
+            }
+
+            int available = this.in.available();
+
+            return this.remaining >= 0 ? (int) Math.min(available, this.remaining) : available;
+        }
+
+        @Override
+        public void close() {
+            if (this.closed) {
+                return;
+            }
+
+            boolean reusable = this.keepAlive && drain();
+
+            this.closed = true;
+            this.pool.release(this.connection, reusable);
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (this.remaining != 0) {
+                return true;
+            }
+
+            // Skip the CRLF following the previous chunk data
+            if (this.chunkStarted) {
+                readLine(this.in);
+            }
+
+            String line = readLine(this.in);
+
+            if (line == null) {
+                throw new EOFException("Unexpected end of chunked response body");
+            }
+
+            int extension = line.indexOf(';');
+            String size = extension >= 0 ? line.substring(0, extension) : line;
+
+            try {
+                this.remaining = Long.parseLong(size.trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size: " + line);
+            }
+
+            this.chunkStarted = true;
+
+            if (this.remaining == 0) {
+                readHeaders(this.in); // trailers
+                this.eof = true;
+                return false;
+            }
+
+            return true;
+        }
+
+        private boolean drain() {
+            if (this.eof) {
+                return true;
+            }
+
+            try {
+                byte[] buffer = new byte[4096];
+                int drained = 0;
+
+                while (drained < MAX_DRAIN_LENGTH) {
+                    int read = read(buffer, 0, buffer.length);
+
+                    if (read == -1) {
+                        return true;
+                    }
+
+                    drained += read;
+                }
+            } catch (IOException e) {
+                // The connection is broken, it can't be reused
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the website answers a request with an unexpected HTTP status.
+ */
+public class HttpStatusException extends IOException {
+
+    private final int status;
+
+    public HttpStatusException(int status, String message) {
+        super(message);
+
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Check if the error comes from the website itself, and not from the request.
+     *
+     * @return true if the status is a 5xx server error
+     */
+    public boolean isServerError() {
+        return this.status >= 500;
+    }
+}
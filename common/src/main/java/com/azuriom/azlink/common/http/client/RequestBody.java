@@ -0,0 +1,14 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A request body written directly to the connection. It may be written more than once
+ * if the request needs to be sent again on a new connection.
+ */
+@FunctionalInterface
+interface RequestBody {
+
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,155 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output stream writing a request body to a connection. Bodies are buffered and sent with
+ * a Content-Length. When compression is enabled, larger bodies are compressed while they
+ * are streamed with the chunked transfer encoding, so the whole body is never kept in memory.
+ * Without compression, the chunked encoding is never used, as some web servers or PHP
+ * configurations don't support chunked request bodies.
+ */
+class RequestOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final OutputStream out;
+    private final StringBuilder head;
+    private final int compressionThreshold;
+
+    private ByteArrayOutputStream buffer;
+    private ChunkedOutputStream chunked;
+    private GZIPOutputStream body;
+
+    /**
+     * Create a new request body stream.
+     *
+     * @param out the connection output stream
+     * @param head the request line and headers, without the final empty line
+     * @param compressionThreshold the minimum body size to compress it, or -1 to disable compression
+     */
+    RequestOutputStream(OutputStream out, StringBuilder head, int compressionThreshold) {
+        this.out = out;
+        this.head = head;
+        this.compressionThreshold = compressionThreshold;
+        this.buffer = new ByteArrayOutputStream(1024);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (this.body == null && this.compressionThreshold >= 0
+                && this.buffer.size() + len > getBufferLimit()) {
+            startStreaming();
+        }
+
+        if (this.body != null) {
+            this.body.write(b, off, len);
+            return;
+        }
+
+        this.buffer.write(b, off, len);
+    }
+
+    /**
+     * Finish to write the request. This doesn't close the connection output stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+        if (this.body == null) {
+            byte[] content = this.buffer.toByteArray();
+
+            if (this.compressionThreshold >= 0 && content.length >= this.compressionThreshold) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(content);
+                }
+
+                content = compressed.toByteArray();
+                this.head.append("Content-Encoding: gzip\r\n");
+            }
+
+            this.head.append("Content-Length: ").append(content.length).append("\r\n");
+
+            writeHead();
+            this.out.write(content);
+        } else {
+            this.body.finish();
+            this.chunked.finish();
+        }
+
+        this.out.flush();
+    }
+
+    private void startStreaming() throws IOException {
+        this.head.append("Transfer-Encoding: chunked\r\n");
+        this.head.append("Content-Encoding: gzip\r\n");
+
+        writeHead();
+
+        this.chunked = new ChunkedOutputStream(this.out);
+        this.body = new GZIPOutputStream(this.chunked, 8192);
+
+        this.buffer.writeTo(this.body);
+        this.buffer = null;
+    }
+
+    private void writeHead() throws IOException {
+        this.head.append("\r\n");
+
+        this.out.write(this.head.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int getBufferLimit() {
+        return Math.max(BUFFER_SIZE, this.compressionThreshold);
+    }
+
+    private static class ChunkedOutputStream extends OutputStream {
+
+        private static final byte[] CRLF = {'\r', '\n'};
+
+        private final OutputStream out;
+
+        public ChunkedOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+
+            this.out.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+            this.out.write(CRLF);
+            this.out.write(b, off, len);
+            this.out.write(CRLF);
+        }
+
+        @Override
+        public void close() {
+            // The connection stream is managed by the connection
+        }
+
+        public void finish() throws IOException {
+            this.out.write('0');
+            this.out.write(CRLF);
+            this.out.write(CRLF);
+        }
+    }
+}
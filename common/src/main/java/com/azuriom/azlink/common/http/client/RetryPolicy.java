@@ -0,0 +1,107 @@
+package com.azuriom.azlink.common.http.client;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Define if and when a failed request to the website should be sent again.
+ * Delays grow exponentially and are randomized, so many servers don't retry at the same time.
+ */
+public class RetryPolicy {
+
+    /**
+     * Never retry, for requests that are already sent again periodically.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, false);
+
+    /**
+     * Retry idempotent requests on any network or server error.
+     */
+    public static final RetryPolicy IDEMPOTENT = new RetryPolicy(4, 1000, 30_000, false);
+
+    /**
+     * Retry only when the request could not reach the website, for requests that must not be applied twice.
+     */
+    public static final RetryPolicy CONNECT_ONLY = new RetryPolicy(3, 1000, 10_000, true);
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final boolean connectOnly;
+
+    /**
+     * Create a new retry policy.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     * @param baseDelay the delay before the first retry, in milliseconds
+     * @param maxDelay the maximum delay between two attempts, in milliseconds
+     * @param connectOnly true to only retry when the connection to the website failed
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay, boolean connectOnly) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.connectOnly = connectOnly;
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Check if a request that failed with the given error can be sent again.
+     *
+     * @param attempt the number of attempts already done
+     * @param error the error of the last attempt
+     * @return true if the request should be sent again
+     */
+    public boolean shouldRetry(int attempt, Throwable error) {
+        if (attempt >= this.maxAttempts || error instanceof CircuitOpenException) {
+            return false;
+        }
+
+        if (isConnectFailure(error)) {
+            return true;
+        }
+
+        if (this.connectOnly) {
+            return false;
+        }
+
+        if (error instanceof HttpStatusException) {
+            HttpStatusException statusError = (HttpStatusException) error;
+
+            return statusError.isServerError() || statusError.getStatus() == 429;
+        }
+
+        return error instanceof IOException;
+    }
+
+    /**
+     * Get the delay before the next attempt, using exponential backoff with a random jitter
+     * between half and the full delay.
+     *
+     * @param attempt the number of attempts already done
+     * @return the delay in milliseconds
+     */
+    public long getDelay(int attempt) {
+        long delay = Math.min(this.baseDelay << Math.min(attempt - 1, 20), this.maxDelay);
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Check if the error happened before the request was sent to the website.
+     *
+     * @param error the request error
+     * @return true if the website never received the request
+     */
+    public static boolean isConnectFailure(Throwable error) {
+        return error instanceof ConnectException
+                || error instanceof UnknownHostException
+                || error instanceof NoRouteToHostException;
+    }
+}
@@ -0,0 +1,186 @@
+package com.azuriom.azlink.common.http.server;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.metrics.Counter;
+import com.azuriom.azlink.common.utils.Hash;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit the resources used by the HTTP server: the number of open connections, the number of
+ * requests per IP address with a token bucket, and the authorization of the requests.
+ */
+public class HttpAccessControl {
+
+    private static final String TOO_MANY_CONNECTIONS = "connections";
+    private static final String RATE_LIMITED = "rate_limit";
+    private static final String UNAUTHORIZED = "unauthorized";
+
+    private static final int MAX_TRACKED_ADDRESSES = 1024;
+    private static final long BUCKET_EXPIRATION = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<InetAddress, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final AzLinkPlugin plugin;
+    private final Counter rejectedRequests;
+
+    private String authorizationSiteKey;
+    private byte[] expectedAuthorization;
+
+    public HttpAccessControl(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+        this.rejectedRequests = plugin.getMetrics().counter("azlink_http_server_rejected_total",
+                "Number of connections and requests rejected by the HTTP server", "reason");
+    }
+
+    /**
+     * Try to open a new connection. The connection must be released with {@link #releaseConnection()}
+     * when it is closed.
+     *
+     * @return true if the connection can be opened, false if there are too many open connections
+     */
+    public boolean tryAcquireConnection() {
+        int maxConnections = this.plugin.getConfig().getHttpMaxConnections();
+
+        while (true) {
+            int connections = this.openConnections.get();
+
+            if (maxConnections > 0 && connections >= maxConnections) {
+                this.rejectedRequests.increment(TOO_MANY_CONNECTIONS);
+                return false;
+            }
+
+            if (this.openConnections.compareAndSet(connections, connections + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void releaseConnection() {
+        this.openConnections.decrementAndGet();
+    }
+
+    /**
+     * Try to handle a new request from the given address. The requests with a valid authorization
+     * are never limited, so the commands pushed by the website are not lost during a burst.
+     *
+     * @param address the remote address of the connection
+     * @param authorization the authorization of the request, can be null
+     * @return true if the request can be handled, false if the address sent too many requests
+     */
+    public boolean tryAcquireRequest(SocketAddress address, String authorization) {
+        int requestsPerMinute = this.plugin.getConfig().getHttpRequestsPerMinute();
+
+        if (requestsPerMinute <= 0 || !(address instanceof InetSocketAddress) || matchesAuthorization(authorization)) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+
+        if (this.buckets.size() >= MAX_TRACKED_ADDRESSES) {
+            this.buckets.values().removeIf(bucket -> bucket.isExpired(now));
+        }
+
+        InetAddress inetAddress = ((InetSocketAddress) address).getAddress();
+        TokenBucket bucket = this.buckets.computeIfAbsent(inetAddress, a -> new TokenBucket(requestsPerMinute, now));
+
+        if (bucket.tryConsume(requestsPerMinute, now)) {
+            return true;
+        }
+
+        this.rejectedRequests.increment(RATE_LIMITED);
+        return false;
+    }
+
+    /**
+     * Verify the authorization header of a request, in constant time.
+     *
+     * @param authorization the authorization header, can be null
+     * @return true if the header matches the site key hash
+     */
+    public boolean isAuthorized(String authorization) {
+        if (!matchesAuthorization(authorization)) {
+            this.rejectedRequests.increment(UNAUTHORIZED);
+            return false;
+        }
+
+        return true;
+    }
+
+    public int getOpenConnections() {
+        return this.openConnections.get();
+    }
+
+    public long getRejectedConnections() {
+        return this.rejectedRequests.get(TOO_MANY_CONNECTIONS);
+    }
+
+    public long getRateLimitedRequests() {
+        return this.rejectedRequests.get(RATE_LIMITED);
+    }
+
+    public long getUnauthorizedRequests() {
+        return this.rejectedRequests.get(UNAUTHORIZED);
+    }
+
+    private boolean matchesAuthorization(String authorization) {
+        byte[] expected = getExpectedAuthorization();
+
+        return authorization != null && expected != null
+                && MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private synchronized byte[] getExpectedAuthorization() {
+        String siteKey = this.plugin.getConfig().getSiteKey();
+
+        if (siteKey == null) {
+            return null;
+        }
+
+        // The hash is only computed again when the site key changes
+        if (!siteKey.equals(this.authorizationSiteKey)) {
+            this.expectedAuthorization = Hash.SHA_256.hash(siteKey).getBytes(StandardCharsets.UTF_8);
+            this.authorizationSiteKey = siteKey;
+        }
+
+        return this.expectedAuthorization;
+    }
+
+    private static class TokenBucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        public TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        public synchronized boolean tryConsume(int capacity, long now) {
+            double elapsedMinutes = (now - this.lastRefill) / (double) TimeUnit.MINUTES.toNanos(1);
+
+            this.tokens = Math.min(capacity, this.tokens + elapsedMinutes * capacity);
+            this.lastRefill = now;
+
+            if (this.tokens < 1) {
+                return false;
+            }
+
+            this.tokens--;
+            return true;
+        }
+
+        public synchronized boolean isExpired(long now) {
+            return now - this.lastRefill > BUCKET_EXPIRATION;
+        }
+    }
+}
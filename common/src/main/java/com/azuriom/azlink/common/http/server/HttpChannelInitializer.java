@@ -1,12 +1,14 @@
 package com.azuriom.azlink.common.http.server;
 
 import com.azuriom.azlink.common.AzLinkPlugin;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.timeout.IdleStateHandler;
 
 public class HttpChannelInitializer extends ChannelInitializer<SocketChannel> {
 
@@ -18,9 +20,19 @@ public class HttpChannelInitializer extends ChannelInitializer<SocketChannel> {
 
     @Override
     protected void initChannel(SocketChannel channel) {
+        HttpAccessControl accessControl = this.plugin.getHttpAccessControl();
+
+        if (!accessControl.tryAcquireConnection()) {
+            channel.close();
+            return;
+        }
+
+        channel.closeFuture().addListener((ChannelFutureListener) future -> accessControl.releaseConnection());
+
         ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast("idle", new IdleStateHandler(0, 0, HttpHandler.IDLE_TIMEOUT));
         pipeline.addLast("decoder", new HttpRequestDecoder());
-        pipeline.addLast("aggregator", new HttpObjectAggregator(1024 * 1024));
+        pipeline.addLast("aggregator", new HttpObjectAggregator(HttpHandler.MAX_CONTENT_LENGTH));
         pipeline.addLast("encoder", new HttpResponseEncoder());
         pipeline.addLast("handler", new HttpHandler(this.plugin));
     }
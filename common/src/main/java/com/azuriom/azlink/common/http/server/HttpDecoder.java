@@ -0,0 +1,133 @@
+package com.azuriom.azlink.common.http.server;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.timeout.IdleStateHandler;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Detect HTTP requests from the first bytes of a connection. The buffers are passed as is
+ * to the next handlers, so the game connections are not slowed down by this handler.
+ * <p>
+ * This file is based on JSONAPI by Alec Gorge, under the MIT license.
+ *
+ * https://github.com/alecgorge/jsonapi/blob/master/src/main/java/com/alecgorge/minecraft/jsonapi/packets/netty/JSONAPIChannelDecoder.java
+ */
+public class HttpDecoder extends ChannelInboundHandlerAdapter {
+
+    private static final byte[][] HTTP_METHODS = {
+            {'G', 'E', 'T', ' '},
+            {'P', 'O', 'S', 'T'},
+    };
+
+    private static final int MAGIC_LENGTH = 4;
+
+    private final AzLinkPlugin plugin;
+
+    // Only used when the first bytes are received in multiple parts
+    private ByteBuf cumulation;
+
+    public HttpDecoder(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf)) {
+            removeSelf(ctx);
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        ByteBuf in = (ByteBuf) msg;
+
+        if (this.cumulation != null) {
+            in = Unpooled.wrappedBuffer(this.cumulation, in);
+            this.cumulation = null;
+        }
+
+        int matchingLength = Math.min(in.readableBytes(), MAGIC_LENGTH);
+        boolean http = matchesHttpMethod(in, matchingLength);
+
+        if (!http) {
+            removeSelf(ctx);
+            ctx.fireChannelRead(in);
+            return;
+        }
+
+        if (matchingLength < MAGIC_LENGTH) {
+            this.cumulation = in; // Wait for more bytes
+            return;
+        }
+
+        HttpAccessControl accessControl = this.plugin.getHttpAccessControl();
+
+        if (!accessControl.tryAcquireConnection()) {
+            in.release();
+            ctx.close();
+            return;
+        }
+
+        ctx.channel().closeFuture().addListener((ChannelFutureListener) future -> accessControl.releaseConnection());
+
+        ChannelPipeline pipeline = ctx.channel().pipeline();
+        ctx.channel().config().setOption(ChannelOption.TCP_NODELAY, true);
+
+        try {
+            while (pipeline.removeLast() != null);
+        } catch (NoSuchElementException e) {
+            // ignore
+        }
+
+        pipeline.addLast("idle", new IdleStateHandler(0, 0, HttpHandler.IDLE_TIMEOUT));
+        pipeline.addLast("codec-http", new HttpServerCodec());
+        pipeline.addLast("aggregator", new HttpObjectAggregator(HttpHandler.MAX_CONTENT_LENGTH));
+        pipeline.addLast("handler", new HttpHandler(this.plugin));
+
+        // The buffer is not released here, it now belongs to the HTTP handlers
+        pipeline.fireChannelRead(in);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (this.cumulation != null) {
+            this.cumulation.release();
+            this.cumulation = null;
+        }
+    }
+
+    private void removeSelf(ChannelHandlerContext ctx) {
+        try {
+            ctx.pipeline().remove(this);
+        } catch (NoSuchElementException e) {
+            // probably okay, it just needs to be off
+        }
+    }
+
+    private static boolean matchesHttpMethod(ByteBuf in, int length) {
+        int index = in.readerIndex();
+
+        for (byte[] method : HTTP_METHODS) {
+            boolean matches = true;
+
+            for (int i = 0; i < length && matches; i++) {
+                matches = in.getByte(index + i) == method[i];
+            }
+
+            if (matches) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -1,23 +1,40 @@
 package com.azuriom.azlink.common.http.server;
 
 import com.azuriom.azlink.common.AzLinkPlugin;
-import com.azuriom.azlink.common.utils.Hash;
+import com.azuriom.azlink.common.metrics.MetricsRegistry;
+import com.google.gson.stream.JsonReader;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.timeout.IdleStateEvent;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 
 public class HttpHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
 
+    public static final int IDLE_TIMEOUT = 30; // 30 seconds
+
+    public static final int MAX_CONTENT_LENGTH = 64 * 1024; // 64 KB
+
+    private static final int MAX_REQUESTS_PER_CONNECTION = 100;
+
     private final AzLinkPlugin plugin;
 
+    private int requests;
+
     public HttpHandler(AzLinkPlugin plugin) {
         this.plugin = plugin;
     }
@@ -28,37 +45,132 @@ public class HttpHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         String uri = request.getUri();
         HttpMethod method = request.getMethod();
 
+        String authorization = getAuthorization(request);
+
+        if (!this.plugin.getHttpAccessControl().tryAcquireRequest(ctx.channel().remoteAddress(), authorization)) {
+            send(ctx, request, writeResponse(HttpResponseStatus.TOO_MANY_REQUESTS, "Error: Too Many Requests"));
+            return;
+        }
+
+        if (uri.equals("/metrics") && method == HttpMethod.GET) {
+            handleMetrics(ctx, request, authorization);
+            return;
+        }
+
         if (!uri.equals("/")) {
-            close(ctx, writeResponse(HttpResponseStatus.NOT_FOUND, "Error: Not Found"));
+            send(ctx, request, writeResponse(HttpResponseStatus.NOT_FOUND, "Error: Not Found"));
             return;
         }
 
         if (method == HttpMethod.GET) {
-            close(ctx, writeResponse(HttpResponseStatus.OK, "Status: OK"));
+            send(ctx, request, writeResponse(HttpResponseStatus.OK, "Status: OK"));
             return;
         }
 
         if (method == HttpMethod.POST) {
             if (!this.plugin.getConfig().isValid()) {
-                close(ctx, writeResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, "Error: Invalid configuration"));
+                send(ctx, request, writeResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, "Error: Invalid configuration"));
                 return;
             }
 
-            String siteKeyHash = Hash.SHA_256.hash(this.plugin.getConfig().getSiteKey());
+            if (!this.plugin.getHttpAccessControl().isAuthorized(request.headers().get("Authorization"))) {
+                send(ctx, request, writeResponse(HttpResponseStatus.FORBIDDEN, "Error: Invalid authorization"));
+                return;
+            }
+
+            // Without a signed body, the commands are retrieved with a new request to the website
+            if (!isPush(request)) {
+                this.plugin.fetch();
 
-            if (!siteKeyHash.equals(request.headers().get("Authorization"))) {
-                close(ctx, writeResponse(HttpResponseStatus.FORBIDDEN, "Error: Invalid authorization"));
+                send(ctx, request, writeResponse(HttpResponseStatus.OK, "Status: OK"));
                 return;
             }
 
-            this.plugin.fetch();
+            handlePush(ctx, request, request.content());
 
-            close(ctx, writeResponse(HttpResponseStatus.OK, "Status: OK"));
+            return;
+        }
+
+        send(ctx, request, writeResponse(HttpResponseStatus.METHOD_NOT_ALLOWED, "Error: Method Not Allowed"));
+    }
 
+    private void handleMetrics(ChannelHandlerContext ctx, FullHttpRequest request, String authorization) {
+        if (!this.plugin.getHttpAccessControl().isAuthorized(authorization)) {
+            send(ctx, request, writeResponse(HttpResponseStatus.FORBIDDEN, "Error: Invalid authorization"));
             return;
         }
 
-        close(ctx, writeResponse(HttpResponseStatus.METHOD_NOT_ALLOWED, "Error: Method Not Allowed"));
+        FullHttpResponse response = writeResponse(HttpResponseStatus.OK, this.plugin.getMetrics().write());
+        response.headers().set("Content-Type", MetricsRegistry.CONTENT_TYPE);
+
+        send(ctx, request, response);
+    }
+
+    private static String getAuthorization(FullHttpRequest request) {
+        String authorization = request.headers().get("Authorization");
+
+        // Prometheus sends the credentials as a bearer token
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+
+        return authorization;
+    }
+
+    private static boolean isPush(FullHttpRequest request) {
+        // Older websites may send a body without signature, only to trigger a new fetch
+        return request.content().isReadable()
+                && (request.headers().get(PushVerifier.TIMESTAMP_HEADER) != null
+                || request.headers().get(PushVerifier.SIGNATURE_HEADER) != null);
+    }
+
+    private void handlePush(ChannelHandlerContext ctx, FullHttpRequest request, ByteBuf content) {
+        byte[] body = new byte[content.readableBytes()];
+        content.getBytes(content.readerIndex(), body);
+
+        String timestamp = request.headers().get(PushVerifier.TIMESTAMP_HEADER);
+        String signature = request.headers().get(PushVerifier.SIGNATURE_HEADER);
+        String siteKey = this.plugin.getConfig().getSiteKey();
+
+        if (!this.plugin.getPushVerifier().verify(siteKey, timestamp, signature, body)) {
+            send(ctx, request, writeResponse(HttpResponseStatus.FORBIDDEN, "Error: Invalid signature"));
+            return;
+        }
+
+        // Parsing the body and adding the users must not block the Netty event loop, and the next
+        // requests of the connection are only read once the response is sent, to keep them in order
+        Channel channel = ctx.channel();
+        channel.config().setAutoRead(false);
+
+        try {
+            this.plugin.getScheduler().executeAsync(() -> {
+                FullHttpResponse response = readPush(body);
+
+                channel.eventLoop().execute(() -> sendAndResume(ctx, request, response));
+            });
+        } catch (RuntimeException e) {
+            sendAndResume(ctx, request, writeResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, "Error: Service Unavailable"));
+        }
+    }
+
+    private FullHttpResponse readPush(byte[] body) {
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+
+        try (JsonReader jsonReader = AzLinkPlugin.getGson().newJsonReader(reader)) {
+            this.plugin.getFetcherTask().handlePush(jsonReader);
+        } catch (IOException | RuntimeException e) {
+            this.plugin.getLogger().warn("Invalid data pushed by the website: " + e.getMessage());
+
+            return writeResponse(HttpResponseStatus.BAD_REQUEST, "Error: Invalid body");
+        }
+
+        return writeResponse(HttpResponseStatus.OK, "Status: OK");
+    }
+
+    private void sendAndResume(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
+        send(ctx, request, response);
+
+        ctx.channel().config().setAutoRead(true);
     }
 
     private FullHttpResponse writeResponse(HttpResponseStatus status, String content) {
@@ -67,7 +179,31 @@ public class HttpHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         return response;
     }
 
-    private void close(ChannelHandlerContext ctx, FullHttpResponse response) {
-        ctx.channel().writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent) {
+            ctx.close();
+            return;
+        }
+
+        super.userEventTriggered(ctx, evt);
+    }
+
+    @SuppressWarnings("deprecation") // HttpUtil doesn't exist on old Netty versions
+    private void send(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
+        boolean keepAlive = HttpHeaders.isKeepAlive(request) && ++this.requests < MAX_REQUESTS_PER_CONNECTION;
+
+        HttpHeaders.setContentLength(response, response.content().readableBytes());
+        HttpHeaders.setKeepAlive(response, keepAlive);
+
+        if (!keepAlive) {
+            ctx.channel().writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+
+        int remaining = MAX_REQUESTS_PER_CONNECTION - this.requests;
+        response.headers().set("Keep-Alive", "timeout=" + IDLE_TIMEOUT + ", max=" + remaining);
+
+        ctx.channel().writeAndFlush(response);
     }
 }
@@ -0,0 +1,162 @@
+package com.azuriom.azlink.common.http.server;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An HTTP server sharing the port of the game server or the proxy, by detecting HTTP requests
+ * on the connections accepted by the server channels.
+ */
+public abstract class InjectedHttpServer implements HttpServer {
+
+    // The server channels can be bound after the plugin is enabled, so we retry for some time
+    private static final int MAX_INJECT_ATTEMPTS = 30;
+
+    private final ChannelHandler serverChannelHandler = createChannelHandler();
+    private final List<Channel> serverChannels = new CopyOnWriteArrayList<>();
+
+    protected final AzLinkPlugin plugin;
+
+    private volatile boolean stopped;
+
+    protected InjectedHttpServer(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Find the server channels accepting the connections on the HTTP port.
+     *
+     * @return the server channels, or an empty collection if they are not bound yet
+     * @throws Exception if the server channels can't be found
+     */
+    protected abstract Collection<Channel> findServerChannels() throws Exception;
+
+    @Override
+    public void start() {
+        // Make sure Netty isn't relocated, as our classes must be the same as the server ones
+        if (!HttpDecoder.class.getSuperclass().getName().startsWith("io.")) {
+            this.plugin.getLogger().error("Injecting HTTP server on server channel is not supported with AzLink legacy.");
+            return;
+        }
+
+        inject(1);
+    }
+
+    @Override
+    public void stop() {
+        this.stopped = true;
+
+        try {
+            uninject();
+        } catch (Exception e) {
+            this.plugin.getLogger().error("An error occurred while removing HTTP server", e);
+        }
+    }
+
+    private void inject(int attempt) {
+        if (this.stopped) {
+            return;
+        }
+
+        try {
+            Collection<Channel> channels = findServerChannels();
+
+            if (channels.isEmpty()) {
+                if (attempt < MAX_INJECT_ATTEMPTS) {
+                    this.plugin.getScheduler().scheduleAsyncLater(() -> inject(attempt + 1), 1, TimeUnit.SECONDS);
+                    return;
+                }
+
+                throw new IllegalStateException("Unable to find server channel, try disabling late bind");
+            }
+
+            for (Channel channel : channels) {
+                injectServerChannel(channel);
+            }
+
+            this.plugin.getLogger().info("HTTP server successfully injected.");
+        } catch (Exception e) {
+            this.plugin.getLogger().error("Unable to inject HTTP server. Try using a different port for AzLink", e);
+        }
+    }
+
+    private synchronized void injectServerChannel(Channel channel) {
+        if (this.stopped) {
+            return;
+        }
+
+        channel.pipeline().addFirst(this.serverChannelHandler);
+
+        this.serverChannels.add(channel);
+    }
+
+    private synchronized void uninject() {
+        for (Channel channel : this.serverChannels) {
+            channel.eventLoop().submit(() -> {
+                try {
+                    channel.pipeline().remove(this.serverChannelHandler);
+                } catch (NoSuchElementException e) {
+                    // ignore
+                }
+            });
+        }
+
+        this.serverChannels.clear();
+    }
+
+    private ChannelHandler createChannelHandler() {
+        // Handle connected channels
+        ChannelInboundHandler endInitProtocol = new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel channel) {
+                try {
+                    channel.eventLoop().submit(() -> channel.pipeline().addFirst(new HttpDecoder(plugin)));
+                } catch (Exception e) {
+                    plugin.getLogger().error("Unable to init channel", e);
+                }
+            }
+        };
+
+        // This is executed before the server channel handler
+        ChannelInboundHandler beginInitProtocol = new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel channel) {
+                // Our only job is to add init protocol
+                channel.pipeline().addLast(endInitProtocol);
+            }
+        };
+
+        return new ServerChannelHandler(beginInitProtocol);
+    }
+
+    @ChannelHandler.Sharable
+    private static class ServerChannelHandler extends ChannelInboundHandlerAdapter {
+
+        private final ChannelHandler initProtocol;
+
+        public ServerChannelHandler(ChannelHandler initProtocol) {
+            this.initProtocol = initProtocol;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            Channel channel = (Channel) msg;
+
+            // Prepare to initialize this channel
+            channel.pipeline().addFirst(this.initProtocol);
+
+            ctx.fireChannelRead(msg);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.azuriom.azlink.common.http.server;
 
 import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.scheduler.ThreadFactoryBuilder;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ReflectiveChannelFactory;
+import io.netty.channel.ServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 
+import java.lang.reflect.Constructor;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadFactory;
 
 public class NettyHttpServer implements HttpServer {
 
@@ -16,14 +22,48 @@ public class NettyHttpServer implements HttpServer {
 
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
+    private final ChannelFactory<? extends ServerChannel> channelFactory;
+    private final boolean sharedGroups;
 
     private Channel channel;
 
     public NettyHttpServer(AzLinkPlugin plugin) {
         this.plugin = plugin;
+        this.sharedGroups = false;
+
+        int threads = Math.max(plugin.getConfig().getHttpWorkerThreads(), 1);
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().name("azlink-http-%t").daemon();
+        Class<? extends ServerChannel> epollChannel = findEpollChannel();
+        EventLoopGroup group = epollChannel != null ? createEpollGroup(threads, threadFactory) : null;
+
+        if (group != null) {
+            this.channelFactory = new ReflectiveChannelFactory<>(epollChannel);
+        } else {
+            group = new NioEventLoopGroup(threads, threadFactory);
+            this.channelFactory = new ReflectiveChannelFactory<>(NioServerSocketChannel.class);
+        }
 
-        this.bossGroup = new NioEventLoopGroup(1);
-        this.workerGroup = new NioEventLoopGroup();
+        // The server only has one port, so the same threads can accept and handle the connections
+        this.bossGroup = group;
+        this.workerGroup = group;
+    }
+
+    /**
+     * Create an HTTP server using existing event loops, like the ones of a proxy.
+     * The event loops are not shut down when the server is stopped.
+     *
+     * @param plugin the AzLink plugin
+     * @param bossGroup the event loops accepting the connections
+     * @param workerGroup the event loops handling the connections
+     * @param channelFactory the server channel factory, matching the event loops transport
+     */
+    public NettyHttpServer(AzLinkPlugin plugin, EventLoopGroup bossGroup, EventLoopGroup workerGroup,
+                           ChannelFactory<? extends ServerChannel> channelFactory) {
+        this.plugin = plugin;
+        this.bossGroup = bossGroup;
+        this.workerGroup = workerGroup;
+        this.channelFactory = channelFactory;
+        this.sharedGroups = true;
     }
 
     @Override
@@ -39,7 +79,7 @@ public class NettyHttpServer implements HttpServer {
         InetSocketAddress address = new InetSocketAddress(port);
 
         new ServerBootstrap()
-                .channel(NioServerSocketChannel.class)
+                .channelFactory(this.channelFactory)
                 .group(this.bossGroup, this.workerGroup)
                 .childHandler(new HttpChannelInitializer(this.plugin))
                 .bind(address)
@@ -65,7 +105,45 @@ public class NettyHttpServer implements HttpServer {
             this.plugin.getLogger().error("An error occurred while stopping HTTP server", e);
         }
 
+        if (this.sharedGroups) {
+            return;
+        }
+
         this.bossGroup.shutdownGracefully();
-        this.workerGroup.shutdownGracefully();
+
+        if (this.workerGroup != this.bossGroup) {
+            this.workerGroup.shutdownGracefully();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends ServerChannel> findEpollChannel() {
+        try {
+            // Epoll is loaded with reflection as the native transport is only available on Linux
+            Class<?> epollClass = Class.forName("io.netty.channel.epoll.Epoll");
+
+            if (!(boolean) epollClass.getMethod("isAvailable").invoke(null)) {
+                return null;
+            }
+
+            return (Class<? extends ServerChannel>) Class.forName("io.netty.channel.epoll.EpollServerSocketChannel");
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            this.plugin.getLogger().warn("Unable to check if the epoll transport is available: " + e);
+            return null;
+        }
+    }
+
+    private EventLoopGroup createEpollGroup(int threads, ThreadFactory threadFactory) {
+        try {
+            Constructor<?> constructor = Class.forName("io.netty.channel.epoll.EpollEventLoopGroup")
+                    .getConstructor(int.class, ThreadFactory.class);
+
+            return (EventLoopGroup) constructor.newInstance(threads, threadFactory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            this.plugin.getLogger().warn("Unable to use the epoll transport for the HTTP server: " + e);
+            return null;
+        }
     }
 }
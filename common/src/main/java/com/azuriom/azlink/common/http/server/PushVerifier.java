@@ -0,0 +1,123 @@
+package com.azuriom.azlink.common.http.server;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Verify the signature of the data pushed by the website. The signature is an HMAC-SHA256 of the
+ * timestamp and the body, using the site key, so a captured request can't be modified or sent again later.
+ */
+public class PushVerifier {
+
+    public static final String TIMESTAMP_HEADER = "Azuriom-Timestamp";
+    public static final String SIGNATURE_HEADER = "Azuriom-Signature";
+
+    private static final long MAX_CLOCK_SKEW = 120; // 2 minutes
+
+    private final Map<String, Long> recentSignatures = new LinkedHashMap<>();
+
+    /**
+     * Verify a pushed request.
+     *
+     * @param key the site key
+     * @param timestamp the request timestamp in seconds, from the timestamp header
+     * @param signature the hex encoded signature, from the signature header
+     * @param body the request body
+     * @return true if the signature is valid and was not already used
+     */
+    public boolean verify(String key, String timestamp, String signature, byte[] body) {
+        if (timestamp == null || signature == null) {
+            return false;
+        }
+
+        long time;
+
+        try {
+            time = Long.parseLong(timestamp.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+
+        if (Math.abs(now - time) > MAX_CLOCK_SKEW) {
+            return false;
+        }
+
+        byte[] expected = hmac(key, time, body);
+        byte[] provided = decodeHex(signature.trim());
+
+        if (provided == null || !MessageDigest.isEqual(expected, provided)) {
+            return false;
+        }
+
+        synchronized (this.recentSignatures) {
+            Iterator<Long> iterator = this.recentSignatures.values().iterator();
+
+            while (iterator.hasNext() && iterator.next() < now) {
+                iterator.remove();
+            }
+
+            // Reject a request sent again while its timestamp is still valid
+            return this.recentSignatures.putIfAbsent(signature.trim().toLowerCase(Locale.ROOT), time + MAX_CLOCK_SKEW) == null;
+        }
+    }
+
+    /**
+     * Sign a request body.
+     *
+     * @param key the site key
+     * @param timestamp the request timestamp in seconds
+     * @param body the request body
+     * @return the hex encoded signature
+     */
+    public static String sign(String key, long timestamp, byte[] body) {
+        StringBuilder result = new StringBuilder(64);
+
+        for (byte b : hmac(key, timestamp, body)) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return result.toString();
+    }
+
+    private static byte[] hmac(String key, long timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new UnsupportedOperationException("HmacSHA256 is not supported on this platform", e);
+        }
+    }
+
+    private static byte[] decodeHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            return null;
+        }
+
+        byte[] result = new byte[hex.length() / 2];
+
+        for (int i = 0; i < result.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+
+            if (high < 0 || low < 0) {
+                return null;
+            }
+
+            result[i] = (byte) ((high << 4) | low);
+        }
+
+        return result;
+    }
+}
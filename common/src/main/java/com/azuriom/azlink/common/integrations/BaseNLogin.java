@@ -18,7 +18,7 @@ public class BaseNLogin {
     }
 
     protected void handleEmailUpdated(UUID uuid, String name, String email) {
-        this.plugin.getHttpClient()
+        this.plugin.getOutbox()
                 .updateEmail(uuid, email)
                 .exceptionally(ex -> {
                     this.plugin.getLogger().error("Unable to update email for " + name, ex);
@@ -28,7 +28,7 @@ public class BaseNLogin {
     }
 
     protected void handleRegister(UUID uuid, String name, String password, InetAddress address) {
-        this.plugin.getHttpClient()
+        this.plugin.getOutbox()
                 .registerUser(name, null, uuid, password, address)
                 .exceptionally(ex -> {
                     this.plugin.getLogger().error("Unable to register " + name, ex);
@@ -38,7 +38,7 @@ public class BaseNLogin {
     }
 
     protected void handleUpdatePassword(UUID uuid, String name, String password) {
-        this.plugin.getHttpClient()
+        this.plugin.getOutbox()
                 .updatePassword(uuid, password)
                 .exceptionally(ex -> {
                     this.plugin.getLogger().error("Unable to update password for " + name, ex);
@@ -0,0 +1,42 @@
+package com.azuriom.azlink.common.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter which only increases, optionally with labels.
+ */
+public class Counter extends Metric {
+
+    private final Map<List<String>, LongAdder> values = new ConcurrentHashMap<>();
+
+    public Counter(String name, String help, String... labelNames) {
+        super(name, help, "counter", labelNames);
+    }
+
+    public void increment(String... labelValues) {
+        add(1, labelValues);
+    }
+
+    public void add(long amount, String... labelValues) {
+        checkLabels(labelValues);
+
+        this.values.computeIfAbsent(Arrays.asList(labelValues), k -> new LongAdder()).add(amount);
+    }
+
+    public long get(String... labelValues) {
+        LongAdder value = this.values.get(Arrays.asList(labelValues));
+
+        return value != null ? value.sum() : 0;
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out) {
+        for (Map.Entry<List<String>, LongAdder> entry : this.values.entrySet()) {
+            writeSample(out, "", entry.getKey(), entry.getValue().sum());
+        }
+    }
+}
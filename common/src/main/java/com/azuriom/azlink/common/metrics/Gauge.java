@@ -0,0 +1,32 @@
+package com.azuriom.azlink.common.metrics;
+
+import java.util.Collections;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A gauge reading its value when the metrics are collected. Negative values are not written,
+ * so a gauge can return -1 when its value is not available.
+ */
+public class Gauge extends Metric {
+
+    private final DoubleSupplier supplier;
+
+    public Gauge(String name, String help, DoubleSupplier supplier) {
+        super(name, help, "gauge");
+
+        this.supplier = supplier;
+    }
+
+    public double get() {
+        return this.supplier.getAsDouble();
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out) {
+        double value = get();
+
+        if (value >= 0) {
+            writeSample(out, "", Collections.emptyList(), value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.azuriom.azlink.common.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A metric with a name, an help text and optional labels, written in the Prometheus text format.
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final String help;
+    private final String type;
+    private final List<String> labelNames;
+
+    protected Metric(String name, String help, String type, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelNames = Arrays.asList(labelNames);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getHelp() {
+        return this.help;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    public List<String> getLabelNames() {
+        return this.labelNames;
+    }
+
+    /**
+     * Write the samples of this metric, without the help and type lines.
+     *
+     * @param out the builder to write to
+     */
+    protected abstract void writeSamples(StringBuilder out);
+
+    protected void checkLabels(String[] labelValues) {
+        if (labelValues.length != this.labelNames.size()) {
+            throw new IllegalArgumentException("Expected " + this.labelNames.size() + " labels for " + this.name
+                    + " but got " + labelValues.length);
+        }
+    }
+
+    protected void writeSample(StringBuilder out, String suffix, List<String> labelValues, double value) {
+        out.append(this.name).append(suffix);
+
+        if (!labelValues.isEmpty()) {
+            out.append('{');
+
+            for (int i = 0; i < labelValues.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+
+                out.append(this.labelNames.get(i)).append("=\"");
+                escapeLabelValue(out, labelValues.get(i));
+                out.append('"');
+            }
+
+            out.append('}');
+        }
+
+        out.append(' ');
+
+        if (value == (long) value) {
+            out.append((long) value);
+        } else if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else {
+            out.append(value);
+        }
+
+        out.append('\n');
+    }
+
+    private static void escapeLabelValue(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.azuriom.azlink.common.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Collect the plugin metrics, to expose them in the Prometheus text format.
+ */
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(new Counter(name, help, labelNames));
+    }
+
+    public Timer timer(String name, String help, String... labelNames) {
+        return register(new Timer(name, help, labelNames));
+    }
+
+    public Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        return register(new Gauge(name, help, supplier));
+    }
+
+    /**
+     * Register a metric, or get the existing metric with the same name.
+     *
+     * @param metric the metric to register
+     * @param <T> the metric type
+     * @return the registered metric
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Metric> T register(T metric) {
+        Metric existing = this.metrics.putIfAbsent(metric.getName(), metric);
+
+        if (existing == null) {
+            return metric;
+        }
+
+        if (existing.getClass() != metric.getClass()) {
+            throw new IllegalArgumentException("Metric " + metric.getName() + " is already registered with an other type");
+        }
+
+        return (T) existing;
+    }
+
+    /**
+     * Write all the metrics in the Prometheus text format.
+     *
+     * @return the metrics
+     */
+    public String write() {
+        StringBuilder out = new StringBuilder(1024);
+
+        for (Metric metric : this.metrics.values()) {
+            out.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+            out.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType()).append('\n');
+
+            metric.writeSamples(out);
+        }
+
+        return out.toString();
+    }
+}
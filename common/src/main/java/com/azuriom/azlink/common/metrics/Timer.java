@@ -0,0 +1,60 @@
+package com.azuriom.azlink.common.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record the count and the total duration of an operation, written as a Prometheus summary in seconds.
+ */
+public class Timer extends Metric {
+
+    private final Map<List<String>, Values> values = new ConcurrentHashMap<>();
+
+    public Timer(String name, String help, String... labelNames) {
+        super(name, help, "summary", labelNames);
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param startNanos the start time of the operation, from {@link System#nanoTime()}
+     * @param labelValues the label values
+     */
+    public void recordSince(long startNanos, String... labelValues) {
+        record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS, labelValues);
+    }
+
+    public void record(long duration, TimeUnit unit, String... labelValues) {
+        checkLabels(labelValues);
+
+        Values values = this.values.computeIfAbsent(Arrays.asList(labelValues), k -> new Values());
+        values.count.increment();
+        values.totalNanos.add(unit.toNanos(duration));
+    }
+
+    public long getCount(String... labelValues) {
+        Values values = this.values.get(Arrays.asList(labelValues));
+
+        return values != null ? values.count.sum() : 0;
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out) {
+        for (Map.Entry<List<String>, Values> entry : this.values.entrySet()) {
+            Values values = entry.getValue();
+
+            writeSample(out, "_count", entry.getKey(), values.count.sum());
+            writeSample(out, "_sum", entry.getKey(), values.totalNanos.sum() / 1_000_000_000.0);
+        }
+    }
+
+    private static class Values {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+    }
+}
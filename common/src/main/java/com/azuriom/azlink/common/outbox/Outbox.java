@@ -0,0 +1,425 @@
+package com.azuriom.azlink.common.outbox;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.data.UserInfo;
+import com.azuriom.azlink.common.http.client.CircuitOpenException;
+import com.azuriom.azlink.common.http.client.HttpClient;
+import com.azuriom.azlink.common.http.client.RetryPolicy;
+import com.azuriom.azlink.common.users.EditMoneyResult;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persistent queue of the account writes sent to the website (registrations, emails, passwords and money),
+ * so they are not lost when the website is unavailable or when the server restarts.
+ *
+ * <p>Entries are sent one by one in their creation order, and a pending password or email update is
+ * replaced when a newer one is queued for the same player.</p>
+ *
+ * <p>Money updates are not kept until the website is available again: they are cancelled when they
+ * could not be sent within {@link #MONEY_TIMEOUT} seconds, so a balance is never changed long after
+ * the command that requested it, possibly after a restart.</p>
+ *
+ * <p>The journal is written on the async executor, as entries are often queued from the main thread.
+ * Writes are chained so they are applied in order, and an entry is only sent once it has been saved.</p>
+ */
+public class Outbox {
+
+    private static final String FILE_NAME = "outbox.log";
+    private static final int COMPACTION_THRESHOLD = 64;
+    private static final long MONEY_TIMEOUT = 30; // seconds
+
+    private final Map<Long, OutboxEntry> pending = new LinkedHashMap<>();
+    private final Map<Long, CompletableFuture<Object>> callbacks = new HashMap<>();
+    private final AzLinkPlugin plugin;
+
+    private OutboxJournal journal;
+    private CompletableFuture<Void> journalWrites = CompletableFuture.completedFuture(null);
+    private long nextId = 1;
+    private long sendingId = -1;
+    private boolean sending;
+
+    public Outbox(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load the entries that were not sent before the last shutdown.
+     */
+    public synchronized void load() {
+        if (this.journal != null) {
+            return;
+        }
+
+        Path file = this.plugin.getPlatform().getDataDirectory().resolve(FILE_NAME);
+        this.journal = new OutboxJournal(file, this.plugin.getConfig().getSiteKey());
+
+        try {
+            for (OutboxEntry entry : this.journal.load()) {
+                this.pending.put(entry.getId(), entry);
+                this.nextId = Math.max(this.nextId, entry.getId() + 1);
+            }
+
+            if (this.journal.getCorrupted() > 0) {
+                this.plugin.getLogger().warn("Ignored " + this.journal.getCorrupted() + " invalid records in " + FILE_NAME);
+
+                this.journal.compact(this.pending.values());
+            }
+        } catch (IOException e) {
+            this.plugin.getLogger().error("Unable to load pending website requests", e);
+        }
+
+        if (!this.pending.isEmpty()) {
+            this.plugin.getLogger().info("Loaded " + this.pending.size() + " pending website requests.");
+        }
+    }
+
+    public CompletableFuture<Void> registerUser(String name, String email, UUID uuid, String password, InetAddress address) {
+        JsonObject params = new JsonObject();
+        params.addProperty("name", name);
+        params.addProperty("email", email);
+        params.addProperty("game_id", uuid.toString());
+        params.addProperty("password", password);
+        params.addProperty("ip", address != null ? address.getHostAddress() : null);
+
+        return submit(OutboxEntry.Type.REGISTER, "register:" + uuid, "/azlink/register", params);
+    }
+
+    public CompletableFuture<Void> updateEmail(UUID uuid, String email) {
+        JsonObject params = new JsonObject();
+        params.addProperty("game_id", uuid.toString());
+        params.addProperty("email", email);
+
+        return submit(OutboxEntry.Type.EMAIL, "email:" + uuid, "/azlink/email", params);
+    }
+
+    public CompletableFuture<Void> updatePassword(UUID uuid, String password) {
+        JsonObject params = new JsonObject();
+        params.addProperty("game_id", uuid.toString());
+        params.addProperty("password", password);
+
+        return submit(OutboxEntry.Type.PASSWORD, "password:" + uuid, "/azlink/password", params);
+    }
+
+    public CompletableFuture<EditMoneyResult> editMoney(UserInfo user, String action, double amount) {
+        String endpoint = "/azlink/user/" + user.getId() + "/money/" + action;
+        JsonObject params = new JsonObject();
+        params.addProperty("amount", amount);
+
+        // Money updates are never merged, each one must be applied
+        return submit(OutboxEntry.Type.MONEY, null, endpoint, params);
+    }
+
+    /**
+     * Send the pending entries to the website, if they are not already being sent.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (this.sending || this.pending.isEmpty() || !this.plugin.isConfigured()) {
+                return;
+            }
+
+            this.sending = true;
+        }
+
+        sendNext();
+    }
+
+    public synchronized int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Encrypt the pending entries with a new site key, as they could not be read anymore with the previous one.
+     *
+     * @param siteKey the new site key
+     */
+    public synchronized void changeSiteKey(String siteKey) {
+        if (this.journal == null) {
+            return;
+        }
+
+        List<OutboxEntry> entries = new ArrayList<>(this.pending.values());
+        Path file = this.plugin.getPlatform().getDataDirectory().resolve(FILE_NAME);
+
+        writeJournal(journal -> {
+            journal.close();
+
+            OutboxJournal newJournal = new OutboxJournal(file, siteKey);
+            newJournal.compact(entries);
+            this.journal = newJournal;
+        });
+    }
+
+    public void close() {
+        CompletableFuture<Void> writes;
+
+        synchronized (this) {
+            if (this.journal == null) {
+                return;
+            }
+
+            writes = this.journalWrites;
+        }
+
+        // Not waiting with the lock, as the pending writes may need it to send the next entries
+        try {
+            writes.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            this.plugin.getLogger().warn("Unable to save pending website requests to " + FILE_NAME, e);
+        }
+
+        synchronized (this) {
+            try {
+                this.journal.close();
+            } catch (IOException e) {
+                this.plugin.getLogger().warn("Error while closing " + FILE_NAME, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(OutboxEntry.Type type, String key, String endpoint, JsonObject params) {
+        if (!this.plugin.isConfigured()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("AzLink is not linked to a website."));
+            return future;
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Void> saved;
+
+        synchronized (this) {
+            load();
+
+            OutboxEntry entry = new OutboxEntry(this.nextId++, type, key, endpoint, params,
+                    UUID.randomUUID().toString(), Instant.now());
+
+            if (key != null) {
+                removeReplaced(key);
+            }
+
+            saved = writeJournal(journal -> journal.append(entry));
+
+            this.pending.put(entry.getId(), entry);
+            this.callbacks.put(entry.getId(), future);
+
+            if (type == OutboxEntry.Type.MONEY) {
+                this.plugin.getScheduler().scheduleAsyncLater(() -> expire(entry.getId()), MONEY_TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+
+        saved.thenRun(this::flush);
+
+        return (CompletableFuture<T>) future;
+    }
+
+    private void removeReplaced(String key) {
+        Iterator<OutboxEntry> iterator = this.pending.values().iterator();
+
+        while (iterator.hasNext()) {
+            OutboxEntry entry = iterator.next();
+
+            if (key.equals(entry.getKey()) && entry.getId() != this.sendingId) {
+                iterator.remove();
+                removeFromJournal(entry.getId());
+
+                CompletableFuture<Object> callback = this.callbacks.remove(entry.getId());
+
+                if (callback != null) {
+                    callback.complete(null);
+                }
+            }
+        }
+    }
+
+    private void sendNext() {
+        OutboxEntry entry = nextEntry();
+
+        if (entry == null) {
+            return;
+        }
+
+        HttpClient.ResponseReader<?> reader = entry.getType() == OutboxEntry.Type.MONEY
+                ? in -> AzLinkPlugin.getGson().fromJson(in, EditMoneyResult.class)
+                : null;
+        // Allows the website to ignore a request sent twice, but it may not support it, so the retries don't rely on it
+        Map<String, String> headers = Collections.singletonMap("Idempotency-Key", entry.getIdempotencyKey());
+
+        this.plugin.getHttpClient()
+                .request(HttpClient.RequestMethod.POST, entry.getEndpoint(), entry.getParams(), reader, RetryPolicy.NONE, headers)
+                .whenComplete((result, ex) -> {
+                    Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+                    if (error != null && !isExpired(entry) && canRetry(entry, error)) {
+                        synchronized (this) {
+                            this.sending = false;
+                            this.sendingId = -1;
+                        }
+
+                        return;
+                    }
+
+                    complete(entry, result, ex);
+                    sendNext();
+                });
+    }
+
+    /**
+     * Get the next entry to send, after cancelling the expired ones.
+     *
+     * @return the next entry, or null if there are no more entries to send
+     */
+    private OutboxEntry nextEntry() {
+        while (true) {
+            OutboxEntry entry;
+
+            synchronized (this) {
+                if (this.pending.isEmpty()) {
+                    this.sending = false;
+                    this.sendingId = -1;
+                    return null;
+                }
+
+                entry = this.pending.values().iterator().next();
+                this.sendingId = entry.getId();
+            }
+
+            if (!isExpired(entry)) {
+                return entry;
+            }
+
+            complete(entry, null, createExpiredError());
+        }
+    }
+
+    private boolean canRetry(OutboxEntry entry, Throwable error) {
+        if (error instanceof CircuitOpenException || RetryPolicy.isConnectFailure(error)) {
+            return true;
+        }
+
+        return entry.getType().getRetryPolicy().shouldRetry(1, error);
+    }
+
+    private boolean isExpired(OutboxEntry entry) {
+        return entry.getType() == OutboxEntry.Type.MONEY
+                && entry.getCreatedAt().isBefore(Instant.now().minusSeconds(MONEY_TIMEOUT));
+    }
+
+    private synchronized void expire(long id) {
+        OutboxEntry entry = this.pending.get(id);
+
+        // The entry being sent is completed with the response of the website
+        if (entry == null || entry.getId() == this.sendingId) {
+            return;
+        }
+
+        complete(entry, null, createExpiredError());
+    }
+
+    private static TimeoutException createExpiredError() {
+        return new TimeoutException("The website was not available for " + MONEY_TIMEOUT + " seconds, the money update was cancelled.");
+    }
+
+    private synchronized void complete(OutboxEntry entry, Object result, Throwable error) {
+        this.pending.remove(entry.getId());
+
+        removeFromJournal(entry.getId());
+
+        CompletableFuture<Object> callback = this.callbacks.remove(entry.getId());
+
+        if (callback == null) {
+            // Entry loaded from the journal, nobody is waiting for the result
+            if (error != null) {
+                this.plugin.getLogger().error("Unable to send pending " + entry.getType().name().toLowerCase(Locale.ROOT)
+                        + " request to the website: " + error.getMessage());
+            }
+
+            return;
+        }
+
+        if (error != null) {
+            callback.completeExceptionally(error);
+        } else {
+            callback.complete(result);
+        }
+    }
+
+    private void removeFromJournal(long id) {
+        List<OutboxEntry> entries = new ArrayList<>(this.pending.values());
+
+        writeJournal(journal -> {
+            journal.remove(id);
+
+            if (entries.isEmpty() || journal.getRecords() > entries.size() + COMPACTION_THRESHOLD) {
+                journal.compact(entries);
+            }
+        });
+    }
+
+    /**
+     * Queue a write to the journal, after the previous ones. Must be called while holding the lock.
+     * A failed write is logged, and doesn't prevent the next ones.
+     *
+     * @param write the write to apply to the journal
+     * @return a future completed once the write is done, even if it failed
+     */
+    private CompletableFuture<Void> writeJournal(JournalWrite write) {
+        Executor executor = this.plugin.getScheduler().asyncExecutor();
+
+        this.journalWrites = this.journalWrites.thenRunAsync(() -> {
+            try {
+                write.apply(this.journal);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, runnable -> {
+            try {
+                executor.execute(runnable);
+            } catch (RuntimeException e) {
+                // The scheduler is shutting down or the plugin is disabled, save it now
+                runnable.run();
+            }
+        }).exceptionally(ex -> {
+            Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+            if (error instanceof UncheckedIOException) {
+                error = error.getCause();
+            }
+
+            this.plugin.getLogger().warn("Unable to update " + FILE_NAME, error);
+
+            return null;
+        });
+
+        return this.journalWrites;
+    }
+
+    @FunctionalInterface
+    private interface JournalWrite {
+
+        void apply(OutboxJournal journal) throws IOException;
+    }
+}
@@ -0,0 +1,87 @@
+package com.azuriom.azlink.common.outbox;
+
+import com.azuriom.azlink.common.http.client.RetryPolicy;
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+
+/**
+ * A write request waiting to be sent to the website.
+ */
+public class OutboxEntry {
+
+    private final long id;
+    private final Type type;
+    private final String key;
+    private final String endpoint;
+    private final JsonObject params;
+    private final String idempotencyKey;
+    private final Instant createdAt;
+
+    public OutboxEntry(long id, Type type, String key, String endpoint, JsonObject params,
+                       String idempotencyKey, Instant createdAt) {
+        this.id = id;
+        this.type = type;
+        this.key = key;
+        this.endpoint = endpoint;
+        this.params = params;
+        this.idempotencyKey = idempotencyKey;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Get the key used to replace a pending entry by a newer one, like a password update for the same player.
+     *
+     * @return the deduplication key, or null if this entry can't replace another one
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    public JsonObject getParams() {
+        return this.params;
+    }
+
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public enum Type {
+        // The website may have applied a registration or a money update that failed, sending it again could apply it twice
+        REGISTER(RetryPolicy.CONNECT_ONLY),
+        EMAIL(RetryPolicy.IDEMPOTENT),
+        PASSWORD(RetryPolicy.IDEMPOTENT),
+        MONEY(RetryPolicy.CONNECT_ONLY);
+
+        private final RetryPolicy retryPolicy;
+
+        Type(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+        }
+
+        /**
+         * Get the policy defining which errors allow sending the entries of this type again.
+         *
+         * @return the retry policy
+         */
+        public RetryPolicy getRetryPolicy() {
+            return this.retryPolicy;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.azuriom.azlink.common.outbox;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.google.gson.JsonParseException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the outbox entries. Each line is a checksummed record that adds or removes
+ * an entry, so a partially written line after a crash is detected and ignored.
+ *
+ * <p>Records contain players passwords, so they are encrypted with a key derived from the site key.</p>
+ */
+class OutboxJournal {
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Path file;
+    private final SecretKeySpec key;
+
+    private FileChannel channel;
+    private int records;
+    private int corrupted;
+
+    OutboxJournal(Path file, String secret) {
+        this.file = file;
+        this.key = deriveKey(secret);
+    }
+
+    /**
+     * Read the journal and get the entries that were not removed, in their insertion order.
+     *
+     * @return the pending entries
+     * @throws IOException if the journal can't be read
+     */
+    List<OutboxEntry> load() throws IOException {
+        Map<Long, OutboxEntry> entries = new LinkedHashMap<>();
+
+        this.records = 0;
+        this.corrupted = 0;
+
+        if (Files.exists(this.file)) {
+            try (BufferedReader reader = Files.newBufferedReader(this.file, StandardCharsets.US_ASCII)) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    Record record = decode(line);
+
+                    if (record == null) {
+                        this.corrupted++;
+                        continue;
+                    }
+
+                    this.records++;
+
+                    if (record.entry != null) {
+                        entries.put(record.id, record.entry);
+                    } else {
+                        entries.remove(record.id);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(entries.values());
+    }
+
+    void append(OutboxEntry entry) throws IOException {
+        write(new Record(entry.getId(), entry));
+    }
+
+    void remove(long id) throws IOException {
+        write(new Record(id, null));
+    }
+
+    /**
+     * Rewrite the journal with only the given entries, to remove the records of the sent entries.
+     *
+     * @param entries the pending entries
+     * @throws IOException if the journal can't be written
+     */
+    void compact(Collection<OutboxEntry> entries) throws IOException {
+        close();
+
+        Path tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        Files.deleteIfExists(tempFile);
+        createFile(tempFile);
+
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            for (OutboxEntry entry : entries) {
+                writeFully(tempChannel, encode(new Record(entry.getId(), entry)));
+            }
+
+            tempChannel.force(true);
+        }
+
+        Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.records = entries.size();
+        this.corrupted = 0;
+    }
+
+    /**
+     * Get the number of records in the journal, including the ones of the removed entries.
+     *
+     * @return the records count
+     */
+    int getRecords() {
+        return this.records;
+    }
+
+    /**
+     * Get the number of invalid records found when loading the journal.
+     *
+     * @return the corrupted records count
+     */
+    int getCorrupted() {
+        return this.corrupted;
+    }
+
+    void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    private void write(Record record) throws IOException {
+        if (this.channel == null) {
+            createFile(this.file);
+
+            this.channel = FileChannel.open(this.file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        writeFully(this.channel, encode(record));
+        this.channel.force(false);
+        this.records++;
+    }
+
+    private byte[] encode(Record record) throws IOException {
+        byte[] json = AzLinkPlugin.getGson().toJson(record).getBytes(StandardCharsets.UTF_8);
+        byte[] iv = new byte[IV_LENGTH];
+
+        this.random.nextBytes(iv);
+
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, iv));
+
+            byte[] encrypted = cipher.doFinal(json);
+            byte[] payload = Arrays.copyOf(iv, IV_LENGTH + encrypted.length);
+            System.arraycopy(encrypted, 0, payload, IV_LENGTH, encrypted.length);
+
+            String data = Base64.getEncoder().encodeToString(payload);
+
+            return (checksum(data) + ' ' + data + '\n').getBytes(StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to encrypt outbox record", e);
+        }
+    }
+
+    private Record decode(String line) {
+        int separator = line.indexOf(' ');
+
+        if (separator <= 0 || !line.substring(0, separator).equals(checksum(line.substring(separator + 1)))) {
+            return null;
+        }
+
+        try {
+            byte[] payload = Base64.getDecoder().decode(line.substring(separator + 1));
+
+            if (payload.length <= IV_LENGTH) {
+                return null;
+            }
+
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, payload, 0, IV_LENGTH));
+
+            byte[] json = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+
+            return AzLinkPlugin.getGson().fromJson(new String(json, StandardCharsets.UTF_8), Record.class);
+        } catch (GeneralSecurityException | IllegalArgumentException | JsonParseException e) {
+            // Wrong site key or invalid record
+            return null;
+        }
+    }
+
+    private static String checksum(String data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.getBytes(StandardCharsets.US_ASCII));
+
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static void writeFully(FileChannel channel, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void createFile(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        try {
+            if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(file);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // ignore
+        }
+    }
+
+    private static SecretKeySpec deriveKey(String secret) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(("azlink-outbox:" + secret).getBytes(StandardCharsets.UTF_8));
+
+            // AES-128, as older Java 8 versions don't support larger keys by default
+            return new SecretKeySpec(Arrays.copyOf(hash, 16), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new UnsupportedOperationException("SHA-256 is not supported on this platform", e);
+        }
+    }
+
+    private static class Record {
+
+        private final long id;
+        private final OutboxEntry entry;
+
+        private Record(long id, OutboxEntry entry) {
+            this.id = id;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.azuriom.azlink.common.pending;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.command.CommandSender;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent store of the commands that require the player to be online, when the player was offline
+ * when the commands were received. The commands are dispatched on the next join of the player.
+ *
+ * <p>The players are indexed by lowercase name and by UUID, so checking a joining player is cheap.
+ * Each command has a receive sequence, to keep the receive order when a player has commands under
+ * both its name and its UUID.</p>
+ */
+public class PendingCommandStore {
+
+    private static final String FILE_NAME = "pending-commands.json";
+    private static final Type PLAYERS_TYPE = new TypeToken<List<PendingPlayer>>() {}.getType();
+
+    private final Map<String, PendingPlayer> playersByName = new HashMap<>();
+    private final Map<UUID, PendingPlayer> playersByUuid = new HashMap<>();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final Object fileLock = new Object();
+    private final AzLinkPlugin plugin;
+
+    private int pendingCount;
+    private long nextSequence;
+    private boolean loaded;
+
+    public PendingCommandStore(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load the commands that were not dispatched before the last shutdown.
+     */
+    public synchronized void load() {
+        if (this.loaded) {
+            return;
+        }
+
+        this.loaded = true;
+
+        List<PendingPlayer> players;
+
+        try (BufferedReader reader = Files.newBufferedReader(getFile())) {
+            players = AzLinkPlugin.getGson().fromJson(reader, PLAYERS_TYPE);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException | RuntimeException e) {
+            this.plugin.getLogger().error("Unable to load pending commands from " + FILE_NAME, e);
+            return;
+        }
+
+        if (players == null) {
+            return;
+        }
+
+        List<LoadedCommand> commands = new ArrayList<>();
+
+        for (PendingPlayer player : players) {
+            if (player.commands == null || (player.name == null && player.uuid == null)) {
+                continue;
+            }
+
+            for (int i = 0; i < player.commands.size(); i++) {
+                // Files saved by older versions don't have the sequences
+                long sequence = player.sequences != null && i < player.sequences.size() ? player.sequences.get(i) : 0;
+
+                commands.add(new LoadedCommand(player, player.commands.get(i), sequence));
+            }
+        }
+
+        // Stable sort, so the commands without sequence keep the order of the file
+        commands.sort(Comparator.comparingLong(command -> command.sequence));
+
+        for (LoadedCommand command : commands) {
+            addCommand(command.player.name, command.player.uuid, command.command);
+        }
+
+        if (this.pendingCount > 0) {
+            this.plugin.getLogger().info("Loaded " + this.pendingCount + " pending commands.");
+        }
+    }
+
+    /**
+     * Keep a command until the next join of a player.
+     *
+     * @param playerName the name or the UUID of the player, as sent by the website
+     * @param command the command, with the placeholders not yet replaced
+     */
+    public void add(String playerName, String command) {
+        UUID uuid = parseUuid(playerName);
+
+        synchronized (this) {
+            load();
+
+            addCommand(uuid == null ? playerName : null, uuid, command);
+        }
+
+        scheduleSave();
+    }
+
+    /**
+     * Remove the pending commands of a player who just joined.
+     *
+     * @param player the player who joined
+     * @return the pending commands of the player, in the order they were received
+     */
+    public List<String> remove(CommandSender player) {
+        List<String> commands;
+
+        synchronized (this) {
+            if (this.pendingCount == 0) {
+                return Collections.emptyList();
+            }
+
+            PendingPlayer byName = this.playersByName.remove(player.getName().toLowerCase(Locale.ROOT));
+            PendingPlayer byUuid = this.playersByUuid.remove(player.getUuid());
+
+            if (byName == null && byUuid == null) {
+                return Collections.emptyList();
+            }
+
+            commands = merge(byUuid, byName);
+
+            this.pendingCount -= commands.size();
+        }
+
+        scheduleSave();
+
+        return commands;
+    }
+
+    public synchronized int getPendingCount() {
+        return this.pendingCount;
+    }
+
+    /**
+     * Write the pending commands to the data directory.
+     */
+    public void save() {
+        this.saveScheduled.set(false);
+
+        // The file is written outside the store lock, so joining players are not blocked by the disk
+        synchronized (this.fileLock) {
+            List<PendingPlayer> players;
+
+            synchronized (this) {
+                if (!this.loaded) {
+                    return;
+                }
+
+                players = new ArrayList<>(this.playersByUuid.size() + this.playersByName.size());
+
+                for (PendingPlayer player : this.playersByUuid.values()) {
+                    players.add(player.copy());
+                }
+
+                for (PendingPlayer player : this.playersByName.values()) {
+                    players.add(player.copy());
+                }
+            }
+
+            try {
+                writeFile(players);
+            } catch (IOException e) {
+                this.plugin.getLogger().warn("Unable to save pending commands to " + FILE_NAME, e);
+            }
+        }
+    }
+
+    private void writeFile(List<PendingPlayer> players) throws IOException {
+        Path file = getFile();
+
+        if (players.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+
+        // Write to a temporary file first, to never keep a partially written file
+        Path tempFile = file.resolveSibling(FILE_NAME + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile)) {
+            AzLinkPlugin.getGson().toJson(players, PLAYERS_TYPE, writer);
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void scheduleSave() {
+        if (this.saveScheduled.compareAndSet(false, true)) {
+            this.plugin.getScheduler().executeAsync(this::save);
+        }
+    }
+
+    private void addCommand(String name, UUID uuid, String command) {
+        PendingPlayer player = uuid != null
+                ? this.playersByUuid.computeIfAbsent(uuid, u -> new PendingPlayer(null, u))
+                : this.playersByName.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> new PendingPlayer(name, null));
+
+        player.commands.add(command);
+        player.sequences.add(this.nextSequence++);
+        this.pendingCount++;
+    }
+
+    /**
+     * Merge the commands of a player stored by UUID and by name, in the order they were received.
+     */
+    private static List<String> merge(PendingPlayer first, PendingPlayer second) {
+        if (first == null || second == null) {
+            return new ArrayList<>((first != null ? first : second).commands);
+        }
+
+        List<String> commands = new ArrayList<>(first.commands.size() + second.commands.size());
+        int i = 0;
+        int j = 0;
+
+        while (i < first.commands.size() || j < second.commands.size()) {
+            if (j >= second.commands.size()
+                    || (i < first.commands.size() && first.sequences.get(i) < second.sequences.get(j))) {
+                commands.add(first.commands.get(i++));
+            } else {
+                commands.add(second.commands.get(j++));
+            }
+        }
+
+        return commands;
+    }
+
+    private Path getFile() {
+        return this.plugin.getPlatform().getDataDirectory().resolve(FILE_NAME);
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static class PendingPlayer {
+
+        private final String name;
+        private final UUID uuid;
+        private final List<String> commands;
+        private final List<Long> sequences;
+
+        public PendingPlayer(String name, UUID uuid) {
+            this(name, uuid, new ArrayList<>(), new ArrayList<>());
+        }
+
+        private PendingPlayer(String name, UUID uuid, List<String> commands, List<Long> sequences) {
+            this.name = name;
+            this.uuid = uuid;
+            this.commands = commands;
+            this.sequences = sequences;
+        }
+
+        public PendingPlayer copy() {
+            return new PendingPlayer(this.name, this.uuid, new ArrayList<>(this.commands), new ArrayList<>(this.sequences));
+        }
+    }
+
+    private static class LoadedCommand {
+
+        private final PendingPlayer player;
+        private final String command;
+        private final long sequence;
+
+        public LoadedCommand(PendingPlayer player, String command, long sequence) {
+            this.player = player;
+            this.command = command;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.azuriom.azlink.common.players;
+
+import com.azuriom.azlink.common.command.CommandSender;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The online players, updated by the platforms when a player joins or leaves the server. The players
+ * are indexed by lowercase name and by UUID, and can be read from any thread without locking.
+ */
+public class PlayerRegistry {
+
+    private final Map<UUID, CommandSender> playersByUuid = new ConcurrentHashMap<>();
+    private final Map<String, CommandSender> playersByName = new ConcurrentHashMap<>();
+
+    public void addPlayer(CommandSender player) {
+        CommandSender previous = this.playersByUuid.put(player.getUuid(), player);
+
+        // The player may have changed name since the last session
+        if (previous != null && !previous.getName().equalsIgnoreCase(player.getName())) {
+            this.playersByName.remove(toKey(previous.getName()), previous);
+        }
+
+        this.playersByName.put(toKey(player.getName()), player);
+    }
+
+    public void removePlayer(UUID uuid) {
+        CommandSender player = this.playersByUuid.remove(uuid);
+
+        if (player != null) {
+            this.playersByName.remove(toKey(player.getName()), player);
+        }
+    }
+
+    /**
+     * Replace the registered players with the players currently online, in case a join or a quit
+     * was missed, for example when the plugin is enabled after the players joined.
+     *
+     * @param players the online players
+     */
+    public void synchronize(Stream<CommandSender> players) {
+        Map<UUID, CommandSender> onlinePlayers = players.collect(Collectors.toMap(CommandSender::getUuid, p -> p, (p1, p2) -> p1));
+
+        for (UUID uuid : this.playersByUuid.keySet()) {
+            if (!onlinePlayers.containsKey(uuid)) {
+                removePlayer(uuid);
+            }
+        }
+
+        for (CommandSender player : onlinePlayers.values()) {
+            CommandSender current = this.playersByUuid.get(player.getUuid());
+
+            if (current == null || !current.getName().equals(player.getName())) {
+                addPlayer(player);
+            }
+        }
+    }
+
+    /**
+     * Get an online player by name, ignoring the case.
+     *
+     * @param name the name of the player
+     * @return the player, or null if there is no online player with this name
+     */
+    public CommandSender getPlayer(String name) {
+        return this.playersByName.get(toKey(name));
+    }
+
+    /**
+     * Get an online player by UUID.
+     *
+     * @param uuid the UUID of the player
+     * @return the player, or null if there is no online player with this UUID
+     */
+    public CommandSender getPlayer(UUID uuid) {
+        return this.playersByUuid.get(uuid);
+    }
+
+    /**
+     * Get the online players. The returned collection is a live view, not a copy.
+     *
+     * @return the online players
+     */
+    public Collection<CommandSender> getPlayers() {
+        return Collections.unmodifiableCollection(this.playersByUuid.values());
+    }
+
+    public int getPlayersCount() {
+        return this.playersByUuid.size();
+    }
+
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.azuriom.azlink.common.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Create the executor of the async tasks, when the platform doesn't provide one.
+ *
+ * <p>This class is replaced on Java 21 and newer by the one in {@code src/main/java21},
+ * from the {@code META-INF/versions/21} directory of the multi-release jar.</p>
+ */
+final class AsyncExecutors {
+
+    private AsyncExecutors() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create the executor of the async tasks.
+     *
+     * @param scheduler the scheduler of the delayed tasks
+     * @return the scheduler itself, as virtual threads are not available before Java 21
+     */
+    static ExecutorService create(ScheduledExecutorService scheduler) {
+        return scheduler;
+    }
+}
@@ -0,0 +1,105 @@
+package com.azuriom.azlink.common.scheduler;
+
+import com.azuriom.azlink.common.metrics.Timer;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Executor of the main thread, which queues the tasks without locking and executes them from a single
+ * repeating task of the platform, instead of scheduling a new platform task for each of them.
+ *
+ * <p>The tasks are executed in order, with a time budget for each tick. The tasks submitted while
+ * the queue is drained are executed in the next tick, so a task can't reschedule itself in a loop.</p>
+ */
+public class BatchedSyncExecutor implements Executor {
+
+    private static final long TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final Timer waitTimer = new Timer("azlink_sync_task_wait_seconds",
+            "Time the tasks waited in the queue before being executed on the main thread");
+
+    private final BiConsumer<String, Throwable> exceptionHandler;
+
+    private volatile long currentTick;
+
+    /**
+     * Create a new batched executor. {@link #drain()} must then be called on each tick.
+     *
+     * @param exceptionHandler the handler of the exceptions thrown by the tasks, with an error message
+     */
+    public BatchedSyncExecutor(BiConsumer<String, Throwable> exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.queue.add(new QueuedTask(Objects.requireNonNull(command, "command"), this.currentTick));
+        this.queuedTasks.incrementAndGet();
+    }
+
+    /**
+     * Execute the queued tasks, until the time budget of this tick is exceeded. Must be called
+     * from the main thread, on each tick.
+     */
+    public void drain() {
+        long tick = ++this.currentTick;
+        long deadline = System.nanoTime() + TICK_BUDGET;
+
+        // At least one task is executed each tick, even if a single task is slower than the budget
+        do {
+            QueuedTask task = this.queue.peek();
+
+            if (task == null || task.tick >= tick) {
+                return;
+            }
+
+            this.queue.poll();
+            this.queuedTasks.decrementAndGet();
+            this.waitTimer.recordSince(task.queuedAt);
+
+            try {
+                task.runnable.run();
+            } catch (Throwable t) {
+                this.exceptionHandler.accept("An error occurred while executing a task on the main thread", t);
+            }
+        } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * Get the number of tasks waiting to be executed.
+     *
+     * @return the number of queued tasks
+     */
+    public int getQueuedTasks() {
+        return this.queuedTasks.get();
+    }
+
+    /**
+     * Get the timer of the time the tasks waited in the queue, to be registered in the plugin metrics.
+     *
+     * @return the wait timer
+     */
+    public Timer getWaitTimer() {
+        return this.waitTimer;
+    }
+
+    private static final class QueuedTask {
+
+        private final Runnable runnable;
+        private final long tick;
+        private final long queuedAt = System.nanoTime();
+
+        public QueuedTask(Runnable runnable, long tick) {
+            this.runnable = runnable;
+            this.tick = tick;
+        }
+    }
+}
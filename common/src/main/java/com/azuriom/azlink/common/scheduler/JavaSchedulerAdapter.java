@@ -1,9 +1,11 @@
 package com.azuriom.azlink.common.scheduler;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class JavaSchedulerAdapter implements SchedulerAdapter {
@@ -11,6 +13,8 @@ public class JavaSchedulerAdapter implements SchedulerAdapter {
     private final ScheduledExecutorService scheduler;
     private final Executor syncExecutor;
     private final Executor asyncExecutor;
+    // The async executor created by this adapter, if it's not the scheduler
+    private final ExecutorService ownedAsyncExecutor;
 
     public JavaSchedulerAdapter(Executor syncExecutor) {
         this(createScheduler(), syncExecutor);
@@ -20,14 +24,26 @@ public class JavaSchedulerAdapter implements SchedulerAdapter {
         this(createScheduler(), syncExecutor, asyncExecutor);
     }
 
+    /**
+     * Create a scheduler adapter without async executor from the platform. The async tasks are executed
+     * by the scheduler on Java 8 to 20, and by virtual threads on Java 21 and newer.
+     *
+     * @param scheduler the scheduler of the delayed tasks
+     * @param syncExecutor the executor of the main thread
+     */
     public JavaSchedulerAdapter(ScheduledExecutorService scheduler, Executor syncExecutor) {
-        this(scheduler, syncExecutor, scheduler);
+        this(scheduler, syncExecutor, AsyncExecutors.create(scheduler), true);
     }
 
     public JavaSchedulerAdapter(ScheduledExecutorService scheduler, Executor syncExecutor, Executor asyncExecutor) {
+        this(scheduler, syncExecutor, asyncExecutor, false);
+    }
+
+    private JavaSchedulerAdapter(ScheduledExecutorService scheduler, Executor syncExecutor, Executor asyncExecutor, boolean ownAsyncExecutor) {
         this.scheduler = scheduler;
         this.syncExecutor = syncExecutor;
         this.asyncExecutor = asyncExecutor;
+        this.ownedAsyncExecutor = ownAsyncExecutor && asyncExecutor != scheduler ? (ExecutorService) asyncExecutor : null;
     }
 
     @Override
@@ -50,15 +66,43 @@ public class JavaSchedulerAdapter implements SchedulerAdapter {
         return new CancellableFuture(this.scheduler.scheduleAtFixedRate(runnable, delay, interval, unit));
     }
 
+    @Override
+    public int getQueuedTasks() {
+        if (!(this.scheduler instanceof ThreadPoolExecutor)) {
+            return -1;
+        }
+
+        int queued = ((ThreadPoolExecutor) this.scheduler).getQueue().size();
+
+        if (this.asyncExecutor != this.scheduler && this.asyncExecutor instanceof ThreadPoolExecutor) {
+            queued += ((ThreadPoolExecutor) this.asyncExecutor).getQueue().size();
+        }
+
+        if (this.syncExecutor instanceof BatchedSyncExecutor) {
+            queued += ((BatchedSyncExecutor) this.syncExecutor).getQueuedTasks();
+        }
+
+        return queued;
+    }
+
     @Override
     public void shutdown() throws Exception {
         this.scheduler.shutdown();
 
+        if (this.ownedAsyncExecutor != null) {
+            this.ownedAsyncExecutor.shutdown();
+        }
+
         this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+
+        if (this.ownedAsyncExecutor != null) {
+            this.ownedAsyncExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        }
     }
 
     private static ScheduledExecutorService createScheduler() {
-        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        // Not using Executors.newSingleThreadScheduledExecutor() to be able to get the queued tasks
+        return new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
                 .name("azlink-scheduler")
                 .daemon());
     }
@@ -1,5 +1,6 @@
 package com.azuriom.azlink.common.scheduler;
 
+import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -13,6 +14,27 @@ public interface SchedulerAdapter {
         asyncExecutor().execute(runnable);
     }
 
+    /**
+     * Execute a task on the thread owning an online player. On most platforms, this is the main thread,
+     * but on Folia each player is owned by the thread of its region.
+     *
+     * @param playerId the UUID of the online player
+     * @param runnable the task to execute, on the main thread if the player is not online anymore
+     */
+    default void executeForPlayer(UUID playerId, Runnable runnable) {
+        executeSync(runnable);
+    }
+
+    /**
+     * Get if the players are owned by different threads, in which case {@link #executeForPlayer(UUID, Runnable)}
+     * should be used for the tasks targeting a player, and the main thread only for the global tasks.
+     *
+     * @return true if the players are not all owned by the main thread
+     */
+    default boolean hasPlayerThreads() {
+        return false;
+    }
+
     Executor syncExecutor();
 
     Executor asyncExecutor();
@@ -21,6 +43,15 @@ public interface SchedulerAdapter {
 
     CancellableTask scheduleAsyncRepeating(Runnable runnable, long delay, long interval, TimeUnit unit);
 
+    /**
+     * Get the number of tasks waiting to be executed by this scheduler.
+     *
+     * @return the number of queued tasks, or -1 if not available
+     */
+    default int getQueuedTasks() {
+        return -1;
+    }
+
     default void shutdown() throws Exception {
 
     }
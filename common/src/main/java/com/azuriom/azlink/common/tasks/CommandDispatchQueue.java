@@ -0,0 +1,268 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.data.WebsiteCommand;
+import com.azuriom.azlink.common.metrics.Counter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Dispatch the commands on the main thread, with a time budget for each tick. When there are too many
+ * commands to dispatch, the remaining ones are dispatched in the next ticks, in the same order.
+ *
+ * <p>On platforms where the players are owned by different threads, like Folia, the commands using
+ * a placeholder of an online player can be dispatched on the thread owning this player, and only
+ * the other commands on the main thread, when enabled in the config. A player keeps the same lane
+ * while some of their commands are queued, so their commands are always dispatched in order.</p>
+ */
+public class CommandDispatchQueue {
+
+    private static final long TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final DispatchLane globalLane = new DispatchLane(null);
+    private final Map<UUID, DispatchLane> playerLanes = new ConcurrentHashMap<>();
+    private final Map<String, LanePin> lanePins = new HashMap<>();
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+
+    private final AzLinkPlugin plugin;
+    private final Counter dispatchedCommands;
+
+    public CommandDispatchQueue(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+        this.dispatchedCommands = plugin.getMetrics().counter("azlink_commands_dispatched_total",
+                "Number of commands dispatched from the website");
+    }
+
+    /**
+     * Add the commands of a player to the queue.
+     *
+     * @param playerName the name of the player, as sent by the website
+     * @param commands the commands to dispatch
+     * @param playerLookup the function to find an online player by name, must be thread-safe
+     */
+    public void submit(String playerName, List<WebsiteCommand> commands, Function<String, CommandSender> playerLookup) {
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        this.pendingCommands.addAndGet(commands.size());
+
+        PlayerCommands playerCommands = new PlayerCommands(playerName, commands, playerLookup);
+
+        getLane(playerCommands).add(playerCommands);
+    }
+
+    /**
+     * Get the number of commands waiting to be dispatched.
+     *
+     * @return the number of queued commands
+     */
+    public int getPendingCommands() {
+        return this.pendingCommands.get();
+    }
+
+    private DispatchLane getLane(PlayerCommands commands) {
+        if (!this.plugin.getScheduler().hasPlayerThreads() || !this.plugin.getConfig().hasPlayerRegionCommands()) {
+            return this.globalLane;
+        }
+
+        synchronized (this.lanePins) {
+            // Keep the lane of the previous commands of the player until they are dispatched, to keep them in order
+            LanePin pin = this.lanePins.computeIfAbsent(commands.pinKey, key -> new LanePin(selectLane(commands)));
+
+            pin.queuedCommands++;
+            commands.pinned = true;
+
+            return pin.lane;
+        }
+    }
+
+    private DispatchLane selectLane(PlayerCommands commands) {
+        CommandSender player = commands.playerLookup.apply(commands.playerName);
+
+        if (player == null || !isPlayerSpecific(commands.commands)) {
+            return this.globalLane;
+        }
+
+        return this.playerLanes.computeIfAbsent(player.getUuid(), DispatchLane::new);
+    }
+
+    private void release(PlayerCommands commands) {
+        if (!commands.pinned) {
+            return;
+        }
+
+        synchronized (this.lanePins) {
+            LanePin pin = this.lanePins.get(commands.pinKey);
+
+            if (pin != null && --pin.queuedCommands <= 0) {
+                this.lanePins.remove(commands.pinKey);
+            }
+        }
+    }
+
+    private static boolean isPlayerSpecific(List<WebsiteCommand> commands) {
+        for (WebsiteCommand command : commands) {
+            if (CommandTemplate.of(command.getCommand()).isPlayerSpecific()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The commands dispatched by the same thread, the main thread for the global lane,
+     * or the thread owning the player for the lanes of the players.
+     */
+    private class DispatchLane {
+
+        private final Queue<PlayerCommands> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private final UUID playerId;
+
+        public DispatchLane(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+        public void add(PlayerCommands commands) {
+            this.queue.add(commands);
+
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!this.drainScheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (this.playerId == null) {
+                plugin.getScheduler().executeSync(this::drain);
+            } else {
+                plugin.getScheduler().executeForPlayer(this.playerId, this::drain);
+            }
+        }
+
+        private void drain() {
+            this.drainScheduled.set(false);
+
+            long deadline = System.nanoTime() + TICK_BUDGET;
+            StringBuilder commandBuilder = new StringBuilder();
+
+            // At least one command is dispatched each tick, even if a single command is slower than the budget
+            do {
+                PlayerCommands next = this.queue.peek();
+
+                if (next == null) {
+                    break;
+                }
+
+                if (next.dispatchNext(commandBuilder)) {
+                    this.queue.poll();
+
+                    release(next);
+                }
+            } while (System.nanoTime() < deadline);
+
+            if (!this.queue.isEmpty()) {
+                scheduleDrain();
+            } else if (this.playerId != null) {
+                // Commands added in the meantime are still drained, as add() schedules a new drain
+                playerLanes.remove(this.playerId, this);
+            }
+        }
+    }
+
+    /**
+     * The lane used by the queued commands of a player.
+     */
+    private static class LanePin {
+
+        private final DispatchLane lane;
+
+        private int queuedCommands;
+
+        public LanePin(DispatchLane lane) {
+            this.lane = lane;
+        }
+    }
+
+    private class PlayerCommands {
+
+        private final String playerName;
+        private final String pinKey;
+        private final List<WebsiteCommand> commands;
+        private final Function<String, CommandSender> playerLookup;
+
+        private boolean pinned;
+        private CommandTemplate.PlayerValues values;
+        private CommandSender player;
+        private int index;
+
+        public PlayerCommands(String playerName, List<WebsiteCommand> commands, Function<String, CommandSender> playerLookup) {
+            this.playerName = playerName;
+            this.pinKey = playerName.toLowerCase(Locale.ROOT);
+            this.commands = commands;
+            this.playerLookup = playerLookup;
+        }
+
+        /**
+         * Dispatch the next command of this player.
+         *
+         * @param commandBuilder the builder used to render the command
+         * @return true if all the commands of this player were dispatched
+         */
+        public boolean dispatchNext(StringBuilder commandBuilder) {
+            if (this.index == 0) {
+                this.player = this.playerLookup.apply(this.playerName);
+                this.values = new CommandTemplate.PlayerValues(this.playerName, this.player);
+            }
+
+            WebsiteCommand websiteCommand = this.commands.get(this.index++);
+            String id = websiteCommand.getId();
+
+            pendingCommands.decrementAndGet();
+
+            if (id != null && !plugin.getCommandJournal().markDispatched(id)) {
+                plugin.getLogger().info("Skipping command " + id + " for player " + this.playerName + ", already dispatched.");
+
+                return this.index >= this.commands.size();
+            }
+
+            if (this.player == null && websiteCommand.isOnlineRequired() && plugin.getConfig().hasPendingCommands()) {
+                plugin.getLogger().info("Player " + this.playerName + " is offline, keeping command until next join: "
+                        + websiteCommand.getCommand());
+
+                plugin.getPendingCommands().add(this.playerName, websiteCommand.getCommand());
+
+                return this.index >= this.commands.size();
+            }
+
+            String command = CommandTemplate.of(websiteCommand.getCommand()).render(commandBuilder, this.values);
+
+            try {
+                plugin.getLogger().info("Dispatching command for player " + this.values.getPlayerName() + ": " + command);
+
+                plugin.getPlatform().dispatchConsoleCommand(command);
+
+                dispatchedCommands.increment();
+            } catch (RuntimeException e) {
+                plugin.getLogger().error("An error occurred while dispatching command: " + command, e);
+            }
+
+            return this.index >= this.commands.size();
+        }
+    }
+}
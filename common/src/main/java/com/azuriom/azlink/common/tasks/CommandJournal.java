@@ -0,0 +1,324 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.utils.RollingBloomFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Journal of the IDs of the commands dispatched from the website, so a command sent again by the website
+ * is never dispatched twice, for example when the previous response was lost.
+ *
+ * <p>The most recent IDs are kept in an exact set, and the IDs evicted from it in a rolling bloom filter,
+ * so the memory and disk usage stay bounded. The dispatched IDs are acknowledged in the next request
+ * to the website. The journal is compacted on the async scheduler, to never write the whole file
+ * from the main thread.</p>
+ */
+public class CommandJournal {
+
+    private static final String FILE_NAME = "commands.log";
+    private static final String FILTER_FILE_NAME = "commands.bloom";
+
+    private static final int RECENT_CAPACITY = 4096;
+    private static final int FILTER_CAPACITY = 16384;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 1e-6;
+    private static final int MAX_PENDING_ACKNOWLEDGEMENTS = 1024;
+
+    private final Set<String> recentIds = new LinkedHashSet<>();
+    private final Set<String> pendingAcknowledgements = new LinkedHashSet<>();
+    private final RollingBloomFilter filter = new RollingBloomFilter(FILTER_CAPACITY, FILTER_FALSE_POSITIVE_RATE);
+    private final AzLinkPlugin plugin;
+
+    private FileChannel channel;
+    private int records;
+    private boolean loaded;
+    // The IDs written while the journal is compacted, null when there is no compaction in progress
+    private List<String> idsWrittenDuringCompaction;
+
+    public CommandJournal(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load the IDs of the commands dispatched before the last shutdown.
+     */
+    public synchronized void load() {
+        if (this.loaded) {
+            return;
+        }
+
+        this.loaded = true;
+
+        Path directory = this.plugin.getPlatform().getDataDirectory();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(directory.resolve(FILTER_FILE_NAME))))) {
+            if (!this.filter.readFrom(in)) {
+                this.plugin.getLogger().warn("Ignoring incompatible " + FILTER_FILE_NAME);
+            }
+        } catch (NoSuchFileException e) {
+            // ignore, no compaction yet
+        } catch (IOException e) {
+            this.plugin.getLogger().error("Unable to load " + FILTER_FILE_NAME, e);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(FILE_NAME), StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String id = decode(line);
+
+                // A partially written line after a crash is ignored
+                if (id != null) {
+                    addRecent(id);
+                    this.records++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // ignore, no commands with IDs yet
+        } catch (IOException e) {
+            this.plugin.getLogger().error("Unable to load " + FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Mark a command as dispatched, if it was not already dispatched. In both cases, the ID will be
+     * acknowledged in the next request to the website.
+     *
+     * <p>The recent IDs are checked exactly, but the older ones are only checked with the bloom filter:
+     * in the rare case of a false positive (about one in a million), a new command is not dispatched.
+     * A warning is logged when a command is skipped because of the filter.</p>
+     *
+     * @param id the ID of the command
+     * @return true if the command should be dispatched, false if it was already dispatched
+     */
+    public synchronized boolean markDispatched(String id) {
+        load();
+
+        addPendingAcknowledgement(id);
+
+        if (this.recentIds.contains(id)) {
+            return false;
+        }
+
+        // The filter only contains the IDs evicted from the recent IDs
+        if (this.filter.mightContain(id)) {
+            this.plugin.getLogger().warn("Command " + id + " matches an old dispatched command in " + FILTER_FILE_NAME
+                    + ", it will not be dispatched. If this command was never dispatched, this is a false positive.");
+            return false;
+        }
+
+        addRecent(id);
+
+        try {
+            write(id);
+        } catch (IOException e) {
+            this.plugin.getLogger().warn("Unable to save command ID to " + FILE_NAME, e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the IDs of the dispatched commands not yet acknowledged to the website.
+     *
+     * @return the IDs to send in the next request
+     */
+    public synchronized List<String> getPendingAcknowledgements() {
+        return new ArrayList<>(this.pendingAcknowledgements);
+    }
+
+    /**
+     * Remove the IDs successfully sent to the website.
+     *
+     * @param ids the IDs sent to the website
+     */
+    public synchronized void acknowledge(Collection<String> ids) {
+        this.pendingAcknowledgements.removeAll(ids);
+    }
+
+    public synchronized void close() {
+        if (this.channel == null) {
+            return;
+        }
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            this.plugin.getLogger().warn("Error while closing " + FILE_NAME, e);
+        }
+
+        this.channel = null;
+    }
+
+    private void addRecent(String id) {
+        this.recentIds.add(id);
+
+        if (this.recentIds.size() > RECENT_CAPACITY) {
+            Iterator<String> iterator = this.recentIds.iterator();
+            this.filter.add(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void addPendingAcknowledgement(String id) {
+        this.pendingAcknowledgements.add(id);
+
+        // The website sends the commands again if they are not acknowledged, they will be acknowledged then
+        if (this.pendingAcknowledgements.size() > MAX_PENDING_ACKNOWLEDGEMENTS) {
+            Iterator<String> iterator = this.pendingAcknowledgements.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void write(String id) throws IOException {
+        if (this.records >= RECENT_CAPACITY * 2 && this.idsWrittenDuringCompaction == null) {
+            startCompaction();
+        }
+
+        if (this.channel == null) {
+            Path file = this.plugin.getPlatform().getDataDirectory().resolve(FILE_NAME);
+
+            Files.createDirectories(file.getParent());
+
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(encode(id).getBytes(StandardCharsets.UTF_8));
+
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+
+        // Not forced to the disk, as this runs on the main thread, but it is kept if the server crashes
+        this.records++;
+
+        if (this.idsWrittenDuringCompaction != null) {
+            this.idsWrittenDuringCompaction.add(id);
+        }
+    }
+
+    /**
+     * Take a snapshot of the bloom filter and of the recent IDs, then compact the journal
+     * with this snapshot on the async scheduler.
+     */
+    private void startCompaction() throws IOException {
+        ByteArrayOutputStream filterData = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(filterData)) {
+            this.filter.writeTo(out);
+        }
+
+        List<String> ids = new ArrayList<>(this.recentIds);
+
+        this.idsWrittenDuringCompaction = new ArrayList<>();
+
+        try {
+            this.plugin.getScheduler().executeAsync(() -> compact(filterData.toByteArray(), ids));
+        } catch (RuntimeException e) {
+            // The scheduler is not available, for example during the shutdown
+            this.idsWrittenDuringCompaction = null;
+
+            throw new IOException("Unable to schedule the compaction of " + FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Save the bloom filter, then rewrite the journal with only the most recent IDs.
+     */
+    private void compact(byte[] filterData, List<String> ids) {
+        Path directory = this.plugin.getPlatform().getDataDirectory();
+        Path tempFile = directory.resolve(FILE_NAME + ".tmp");
+
+        try {
+            Path filterTempFile = directory.resolve(FILTER_FILE_NAME + ".tmp");
+
+            Files.write(filterTempFile, filterData);
+            Files.move(filterTempFile, directory.resolve(FILTER_FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+
+            try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(tempChannel));
+
+                for (String id : ids) {
+                    out.write(encode(id).getBytes(StandardCharsets.UTF_8));
+                }
+
+                out.flush();
+                tempChannel.force(true);
+            }
+
+            finishCompaction(tempFile, ids.size());
+        } catch (IOException e) {
+            this.plugin.getLogger().warn("Unable to compact " + FILE_NAME, e);
+
+            synchronized (this) {
+                this.idsWrittenDuringCompaction = null;
+            }
+        }
+    }
+
+    private synchronized void finishCompaction(Path tempFile, int compactedIds) throws IOException {
+        // Keep the IDs appended to the old journal since the snapshot. Like the other appends, they are
+        // not forced to the disk, to not block the main thread waiting for this lock.
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile, StandardOpenOption.APPEND))) {
+            for (String id : this.idsWrittenDuringCompaction) {
+                out.write(encode(id).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        close();
+
+        Files.move(tempFile, this.plugin.getPlatform().getDataDirectory().resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+
+        this.records = compactedIds + this.idsWrittenDuringCompaction.size();
+        this.idsWrittenDuringCompaction = null;
+    }
+
+    private static String encode(String id) {
+        return checksum(id) + ' ' + id + '\n';
+    }
+
+    private static String decode(String line) {
+        int separator = line.indexOf(' ');
+
+        if (separator <= 0) {
+            return null;
+        }
+
+        String id = line.substring(separator + 1);
+
+        return line.substring(0, separator).equals(checksum(id)) ? id : null;
+    }
+
+    private static String checksum(String id) {
+        CRC32 crc = new CRC32();
+        crc.update(id.getBytes(StandardCharsets.UTF_8));
+
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,231 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A command from the website, parsed once into literal parts and placeholders, so it can be rendered
+ * for many players without searching the placeholders again.
+ *
+ * <p>Supported placeholders are {@code {player}}, {@code {uuid}}, {@code {uuid_nodash}} and
+ * {@code {display_name}}. Unknown placeholders are kept as is.</p>
+ */
+public final class CommandTemplate {
+
+    private static final int MAX_CACHED_TEMPLATES = 512;
+
+    private static final Map<String, CommandTemplate> CACHE = new LinkedHashMap<String, CommandTemplate>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CommandTemplate> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    private final List<Object> parts;
+    private final int expectedLength;
+
+    private CommandTemplate(List<Object> parts, int expectedLength) {
+        this.parts = parts;
+        this.expectedLength = expectedLength;
+    }
+
+    /**
+     * Get the template of a command, from the cache of the recently used templates if possible.
+     *
+     * @param command the command with the placeholders
+     * @return the parsed template
+     */
+    public static CommandTemplate of(String command) {
+        synchronized (CACHE) {
+            CommandTemplate template = CACHE.get(command);
+
+            if (template == null) {
+                template = parse(command);
+                CACHE.put(command, template);
+            }
+
+            return template;
+        }
+    }
+
+    static CommandTemplate parse(String command) {
+        List<Object> parts = new ArrayList<>();
+        int expectedLength = 0;
+        int literalStart = 0;
+        int index = command.indexOf('{');
+
+        while (index >= 0) {
+            int end = command.indexOf('}', index + 1);
+
+            if (end < 0) {
+                break;
+            }
+
+            Placeholder placeholder = Placeholder.fromName(command.substring(index + 1, end));
+
+            if (placeholder == null) {
+                // Not a placeholder, the next one might start inside this one
+                index = command.indexOf('{', index + 1);
+                continue;
+            }
+
+            if (index > literalStart) {
+                parts.add(command.substring(literalStart, index));
+                expectedLength += index - literalStart;
+            }
+
+            parts.add(placeholder);
+            expectedLength += 36; // Length of a UUID, the longest value in most cases
+            literalStart = end + 1;
+            index = command.indexOf('{', literalStart);
+        }
+
+        if (literalStart < command.length()) {
+            parts.add(command.substring(literalStart));
+            expectedLength += command.length() - literalStart;
+        }
+
+        return new CommandTemplate(Collections.unmodifiableList(parts), expectedLength);
+    }
+
+    /**
+     * Get if this template contains a placeholder of the player, meaning the command most likely
+     * targets the player and not the whole server.
+     *
+     * @return true if this template contains a placeholder
+     */
+    public boolean isPlayerSpecific() {
+        for (Object part : this.parts) {
+            if (part instanceof Placeholder) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Render this template for a player.
+     *
+     * @param builder the builder to use, it is cleared before rendering
+     * @param values the placeholders values of the player
+     * @return the rendered command
+     */
+    public String render(StringBuilder builder, PlayerValues values) {
+        builder.setLength(0);
+        builder.ensureCapacity(this.expectedLength);
+
+        for (Object part : this.parts) {
+            if (part instanceof Placeholder) {
+                builder.append(values.get((Placeholder) part));
+            } else {
+                builder.append((String) part);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    enum Placeholder {
+        PLAYER("player"),
+        UUID("uuid"),
+        UUID_NODASH("uuid_nodash"),
+        DISPLAY_NAME("display_name");
+
+        private final String name;
+
+        Placeholder(String name) {
+            this.name = name;
+        }
+
+        static Placeholder fromName(String name) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.name.equals(name)) {
+                    return placeholder;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * The placeholders values of a player, only computed when used and then reused for all
+     * the commands of the player.
+     */
+    public static final class PlayerValues {
+
+        private final String playerName;
+        private final CommandSender player;
+
+        private String uuid;
+        private String uuidNoDash;
+        private String displayName;
+
+        /**
+         * Create the placeholders values of a player.
+         *
+         * @param playerName the name of the player, used when the player is offline
+         * @param player the online player, or null if the player is offline
+         */
+        public PlayerValues(String playerName, CommandSender player) {
+            this.playerName = player != null ? player.getName() : playerName;
+            this.player = player;
+        }
+
+        public String getPlayerName() {
+            return this.playerName;
+        }
+
+        String get(Placeholder placeholder) {
+            switch (placeholder) {
+                case PLAYER:
+                    return this.playerName;
+                case UUID:
+                    if (this.uuid == null) {
+                        this.uuid = this.player != null ? this.player.getUuid().toString() : "?";
+                    }
+
+                    return this.uuid;
+                case UUID_NODASH:
+                    if (this.uuidNoDash == null) {
+                        this.uuidNoDash = this.player != null ? toStringWithoutDashes(this.player.getUuid()) : "?";
+                    }
+
+                    return this.uuidNoDash;
+                case DISPLAY_NAME:
+                    if (this.displayName == null) {
+                        this.displayName = this.player != null ? this.player.getDisplayName() : this.playerName;
+                    }
+
+                    return this.displayName;
+                default:
+                    throw new IllegalArgumentException("Unknown placeholder: " + placeholder);
+            }
+        }
+
+        private static String toStringWithoutDashes(UUID uuid) {
+            String most = Long.toHexString(uuid.getMostSignificantBits());
+            String least = Long.toHexString(uuid.getLeastSignificantBits());
+            StringBuilder builder = new StringBuilder(32);
+
+            for (int i = most.length(); i < 16; i++) {
+                builder.append('0');
+            }
+
+            builder.append(most);
+
+            for (int i = least.length(); i < 16; i++) {
+                builder.append('0');
+            }
+
+            return builder.append(least).toString();
+        }
+    }
+}
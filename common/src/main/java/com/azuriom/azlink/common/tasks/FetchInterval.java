@@ -0,0 +1,61 @@
+package com.azuriom.azlink.common.tasks;
+
+/**
+ * Compute the delay before the next request to the website. The delay is shortened after some activity,
+ * stretched while the server is empty, and the website can also give the delay it wants.
+ */
+public class FetchInterval {
+
+    public static final long DEFAULT_INTERVAL = 60; // 1 minute
+
+    private static final long MIN_INTERVAL = 10; // 10 seconds
+
+    private long current = DEFAULT_INTERVAL;
+
+    /**
+     * Compute the delay before the next request, after a successful request.
+     *
+     * @param hint the delay requested by the website in seconds, or null
+     * @param activity if commands were dispatched or players joined since the last request
+     * @param onlinePlayers the number of online players
+     * @param min the minimum delay in seconds
+     * @param max the maximum delay in seconds
+     * @return the delay before the next request in seconds
+     */
+    public synchronized long next(Integer hint, boolean activity, int onlinePlayers, long min, long max) {
+        if (hint != null && hint > 0) {
+            this.current = hint;
+        } else if (activity) {
+            // Faster delivery for the next request only, following ones will use the default delay
+            this.current = min;
+        } else if (onlinePlayers == 0) {
+            this.current = Math.max(this.current, DEFAULT_INTERVAL) * 2;
+        } else {
+            this.current = DEFAULT_INTERVAL;
+        }
+
+        return clamp(min, max);
+    }
+
+    /**
+     * Compute the delay before the next request, after a failed request.
+     *
+     * @param min the minimum delay in seconds
+     * @param max the maximum delay in seconds
+     * @return the delay before the next request in seconds
+     */
+    public synchronized long reset(long min, long max) {
+        this.current = DEFAULT_INTERVAL;
+
+        return clamp(min, max);
+    }
+
+    private long clamp(long min, long max) {
+        long lower = Math.max(min, MIN_INTERVAL);
+        long upper = Math.max(max, lower);
+
+        this.current = Math.max(lower, Math.min(this.current, upper));
+
+        return this.current;
+    }
+}
@@ -1,39 +1,132 @@
 package com.azuriom.azlink.common.tasks;
 
 import com.azuriom.azlink.common.AzLinkPlugin;
-import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.config.PluginConfig;
+import com.azuriom.azlink.common.data.HeartbeatData;
+import com.azuriom.azlink.common.data.ServerData;
 import com.azuriom.azlink.common.data.UserInfo;
+import com.azuriom.azlink.common.data.WebsiteCommand;
 import com.azuriom.azlink.common.data.WebsiteResponse;
+import com.azuriom.azlink.common.gson.WebsiteResponseReader;
+import com.azuriom.azlink.common.http.client.CircuitOpenException;
+import com.azuriom.azlink.common.http.client.HttpClient;
+import com.azuriom.azlink.common.metrics.Timer;
+import com.azuriom.azlink.common.scheduler.CancellableTask;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FetcherTask implements Runnable {
 
+    private static final Duration FULL_DATA_INTERVAL = Duration.ofMinutes(15);
+
     private final AzLinkPlugin plugin;
+    private final PlayersDeltaTracker playersDelta = new PlayersDeltaTracker();
+    private final FetchInterval interval = new FetchInterval();
+    private final CommandDispatchQueue dispatchQueue;
+    private final Timer fetchTimer;
 
     private Instant lastFullDataSent = Instant.MIN;
     private Instant lastRequest = Instant.MIN;
+    private volatile boolean unavailableLogged;
+    private volatile Long lastFingerprint;
+    private volatile long nextDelay = FetchInterval.DEFAULT_INTERVAL;
+    private volatile int lastPlayersCount = -1;
+    private volatile CancellableTask nextTask;
+    private volatile boolean stopped;
 
     public FetcherTask(AzLinkPlugin plugin) {
         this.plugin = plugin;
+        this.dispatchQueue = new CommandDispatchQueue(plugin);
+        this.fetchTimer = plugin.getMetrics().timer("azlink_fetch_duration_seconds",
+                "Duration of the requests sending the server data to the website", "outcome");
+    }
+
+    /**
+     * Start sending the data to the website. After each request, the next one is scheduled
+     * depending on the server activity and on the delay requested by the website.
+     *
+     * @param delay the delay before the first request
+     * @param unit the unit of the delay
+     */
+    public void start(long delay, TimeUnit unit) {
+        this.stopped = false;
+
+        schedule(delay, unit);
+    }
+
+    public void stop() {
+        this.stopped = true;
+
+        CancellableTask task = this.nextTask;
+
+        if (task != null) {
+            task.cancel();
+        }
     }
 
     @Override
     public void run() {
-        fetch().exceptionally(ex -> {
-            this.plugin.getLogger().error("Unable to send data to the website: " + ex.getMessage());
+        fetch().whenComplete((v, ex) -> {
+            if (ex != null) {
+                PluginConfig config = this.plugin.getConfig();
+                this.nextDelay = this.interval.reset(config.getFetchMinInterval(), config.getFetchMaxInterval());
+            }
 
-            return null;
+            logResult(ex);
+
+            schedule(this.nextDelay, TimeUnit.SECONDS);
         });
     }
 
+    private void logResult(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause == null) {
+            if (this.unavailableLogged) {
+                this.unavailableLogged = false;
+                this.plugin.getLogger().info("The website is available again.");
+            }
+
+            return;
+        }
+
+        // Only log once while the website is unavailable, instead of every minute
+        if (cause instanceof CircuitOpenException) {
+            if (!this.unavailableLogged) {
+                this.unavailableLogged = true;
+                this.plugin.getLogger().error("Unable to send data to the website: " + cause.getMessage());
+            }
+
+            return;
+        }
+
+        this.plugin.getLogger().error("Unable to send data to the website: " + ex.getMessage());
+    }
+
+    private void schedule(long delay, TimeUnit unit) {
+        if (this.stopped) {
+            return;
+        }
+
+        try {
+            this.nextTask = this.plugin.getScheduler().scheduleAsyncLater(this, delay, unit);
+        } catch (RuntimeException e) {
+            this.plugin.getLogger().error("Unable to schedule the next request to the website", e);
+        }
+    }
+
     public CompletableFuture<Void> fetch() {
         Instant now = Instant.now();
 
@@ -48,65 +141,199 @@ public class FetcherTask implements Runnable {
         Executor sync = this.plugin.getScheduler().syncExecutor();
         Executor async = this.plugin.getScheduler().asyncExecutor();
 
-        LocalDateTime currentTime = LocalDateTime.now();
-        boolean sendFullData = currentTime.getMinute() % 15 == 0
-                && this.lastFullDataSent.isBefore(now.minusSeconds(60));
+        boolean sendFullData = this.lastFullDataSent.isBefore(now.minus(FULL_DATA_INTERVAL));
 
-        return CompletableFuture.supplyAsync(() -> this.plugin.getServerData(sendFullData), sync)
-                .thenComposeAsync(this.plugin.getHttpClient()::postData, async)
-                .thenAcceptAsync(res -> handleResponse(res, sendFullData), sync);
+        // The players are read from the registry, so only the worlds data requires the main thread
+        Executor dataExecutor = !sendFullData && this.plugin.getScheduler().hasPlayerThreads() ? async : sync;
+
+        CommandsDispatcher dispatcher = new CommandsDispatcher();
+        long start = System.nanoTime();
+
+        return CompletableFuture.supplyAsync(() -> this.plugin.getServerData(sendFullData), dataExecutor)
+                .thenComposeAsync(data -> postData(data, dispatcher, sendFullData), async)
+                .whenComplete((v, ex) -> {
+                    this.fetchTimer.recordSince(start, fetchOutcome(ex));
+
+                    if (ex != null) {
+                        logDispatchedBeforeError(dispatcher);
+                    }
+                });
+    }
+
+    private void logDispatchedBeforeError(CommandsDispatcher dispatcher) {
+        int dispatched = dispatcher.getDispatchedCount();
+
+        // The commands already sent to the dispatch queue can't be cancelled, but their IDs are
+        // acknowledged in the next request, so the website doesn't send them again
+        if (dispatched > 0) {
+            this.plugin.getLogger().warn("Commands to " + dispatched
+                    + " players were dispatched before the website response failed.");
+        }
     }
 
-    private void handleResponse(WebsiteResponse response, boolean sendFullData) {
+    private CompletableFuture<Void> postData(ServerData data, CommandsDispatcher dispatcher, boolean sendFullData) {
+        Executor sync = this.plugin.getScheduler().syncExecutor();
+        HttpClient httpClient = this.plugin.getHttpClient();
+        CommandJournal commandJournal = this.plugin.getCommandJournal();
+        List<String> acknowledgedCommands = commandJournal.getPendingAcknowledgements();
+        List<String> acknowledged = !acknowledgedCommands.isEmpty() ? acknowledgedCommands : null;
+        long fingerprint = ServerFingerprint.compute(data);
+        Long lastFingerprint = this.lastFingerprint;
+
+        if (!sendFullData && this.plugin.getConfig().hasHeartbeat()
+                && lastFingerprint != null && lastFingerprint == fingerprint) {
+            HeartbeatData heartbeat = new HeartbeatData(Long.toHexString(fingerprint), data.getVersion(), acknowledged);
+
+            return httpClient.postHeartbeat(heartbeat, dispatcher::submit, dispatcher::addUsers)
+                    .thenAcceptAsync(res -> {
+                        commandJournal.acknowledge(acknowledgedCommands);
+                        handleResponse(res, dispatcher, false, false);
+                        updateInterval(res, dispatcher, data);
+                    }, sync);
+        }
+
+        return httpClient.postData(preparePlayers(data).withAcknowledgedCommands(acknowledged), dispatcher::submit, dispatcher::addUsers)
+                .thenAcceptAsync(res -> {
+                    this.lastFingerprint = fingerprint;
+                    commandJournal.acknowledge(acknowledgedCommands);
+
+                    handleResponse(res, dispatcher, sendFullData, true);
+                    updateInterval(res, dispatcher, data);
+                }, sync);
+    }
+
+    private void updateInterval(WebsiteResponse response, CommandsDispatcher dispatcher, ServerData data) {
+        PluginConfig config = this.plugin.getConfig();
+        int players = data.getPlayers().size();
+        int lastPlayers = this.lastPlayersCount;
+        boolean activity = dispatcher.getPlayersCount() > 0 || (lastPlayers >= 0 && players > lastPlayers);
+        Integer hint = response != null ? response.getNextFetch() : null;
+
+        this.lastPlayersCount = players;
+        this.nextDelay = this.interval.next(hint, activity, players,
+                config.getFetchMinInterval(), config.getFetchMaxInterval());
+    }
+
+    /**
+     * Dispatch the commands pushed by the website, without waiting for the next request.
+     * Like the response of a regular request, the data is read on an async thread, and
+     * the users are added before the commands that may need them are dispatched.
+     *
+     * @param reader the reader of the pushed data, with the same format as the website response
+     * @throws IOException if the pushed data is invalid
+     */
+    public void handlePush(JsonReader reader) throws IOException {
+        Executor sync = this.plugin.getScheduler().syncExecutor();
+        CommandsDispatcher dispatcher = new CommandsDispatcher();
+        WebsiteResponse response = new WebsiteResponseReader(dispatcher::submit, dispatcher::addUsers).read(reader);
+
+        sync.execute(() -> handleResponse(response, dispatcher, false, false));
+    }
+
+    public CommandDispatchQueue getDispatchQueue() {
+        return this.dispatchQueue;
+    }
+
+    private static String fetchOutcome(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause == null) {
+            return "success";
+        }
+
+        return cause instanceof CircuitOpenException ? "unavailable" : "error";
+    }
+
+    private ServerData preparePlayers(ServerData data) {
+        if (!this.plugin.getConfig().hasPlayersDelta()) {
+            return data;
+        }
+
+        return this.playersDelta.prepare(data);
+    }
+
+    private void handleResponse(WebsiteResponse response, CommandsDispatcher dispatcher, boolean sendFullData, boolean playersSent) {
         if (response == null) {
             return;
         }
 
-        if (response.getUsers() != null) {
-            for (UserInfo user : response.getUsers()) {
-                this.plugin.getUserManager().addUser(user);
-            }
+        if (response.isPlayersSnapshotRequired()) {
+            this.lastFingerprint = null;
         }
 
-        if (response.getCommands().isEmpty()) {
-            return;
+        if (playersSent && this.plugin.getConfig().hasPlayersDelta()) {
+            this.playersDelta.acknowledge(response);
         }
 
-        dispatchCommands(response.getCommands());
+        int dispatched = dispatcher.getPlayersCount();
+
+        if (dispatched > 0) {
+            this.plugin.getLogger().info("Dispatched commands to " + dispatched + " players.");
+        }
 
         if (sendFullData) {
             this.lastFullDataSent = Instant.now();
         }
+
+        // Send the requests queued while the website was unavailable
+        this.plugin.getOutbox().flush();
     }
 
-    private void dispatchCommands(Map<String, List<String>> commands) {
-        this.plugin.getLogger().info("Dispatching commands to " + commands.size() + " players.");
+    /**
+     * Queue the commands of each player as soon as they are read from the website response,
+     * instead of waiting for the whole response to be parsed.
+     *
+     * <p>The commands may need the users of the response, so the commands are only dispatched
+     * while reading when the website sends the users before the commands. Otherwise, they are
+     * kept until the end of the response, and dropped if the response can't be read entirely.
+     * When a response fails after the users, the commands already dispatched are not cancelled.</p>
+     */
+    private class CommandsDispatcher {
 
-        Map<String, CommandSender> players = this.plugin.getPlatform()
-                .getOnlinePlayers()
-                .collect(Collectors.toMap(cs -> cs.getName().toLowerCase(Locale.ROOT), p -> p, (p1, p2) -> {
-                    String player1 = p1.getName() + " (" + p1.getUuid() + ')';
-                    String player2 = p2.getName() + " (" + p2.getUuid() + ')';
-                    this.plugin.getLogger().warn("Duplicate players names: " + player1 + " / " + player2);
-                    return p1;
-                }));
+        private final AtomicInteger playersCount = new AtomicInteger();
+        private final AtomicInteger dispatchedCount = new AtomicInteger();
+        private final Map<String, List<WebsiteCommand>> waitingCommands = new LinkedHashMap<>();
 
-        for (Map.Entry<String, List<String>> entry : commands.entrySet()) {
-            String playerName = entry.getKey();
-            CommandSender player = players.get(playerName.toLowerCase(Locale.ROOT));
+        private boolean usersAdded;
 
-            if (player != null) {
-                playerName = player.getName();
+        public void submit(String playerName, List<WebsiteCommand> commands) {
+            this.playersCount.incrementAndGet();
+
+            synchronized (this) {
+                if (!this.usersAdded) {
+                    this.waitingCommands.computeIfAbsent(playerName, name -> new ArrayList<>()).addAll(commands);
+                    return;
+                }
             }
 
-            for (String command : entry.getValue()) {
-                command = command.replace("{player}", playerName)
-                        .replace("{uuid}", player != null ? player.getUuid().toString() : "?");
+            dispatch(playerName, commands);
+        }
 
-                this.plugin.getLogger().info("Dispatching command for player " + playerName + ": " + command);
+        public void addUsers(List<UserInfo> users) {
+            for (UserInfo user : users) {
+                plugin.getUserManager().addUser(user);
+            }
+
+            synchronized (this) {
+                this.usersAdded = true;
 
-                this.plugin.getPlatform().dispatchConsoleCommand(command);
+                this.waitingCommands.forEach(this::dispatch);
+                this.waitingCommands.clear();
             }
         }
+
+        public int getPlayersCount() {
+            return this.playersCount.get();
+        }
+
+        public int getDispatchedCount() {
+            return this.dispatchedCount.get();
+        }
+
+        private void dispatch(String playerName, List<WebsiteCommand> commands) {
+            this.dispatchedCount.incrementAndGet();
+
+            dispatchQueue.submit(playerName, commands, plugin.getPlayerRegistry()::getPlayer);
+        }
     }
 }
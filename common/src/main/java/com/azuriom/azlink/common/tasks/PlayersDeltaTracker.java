@@ -0,0 +1,109 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.data.PlayerData;
+import com.azuriom.azlink.common.data.ServerData;
+import com.azuriom.azlink.common.data.WebsiteResponse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keep track of the players list acknowledged by the website, to only send the players who joined
+ * or left since then. A full players list is sent until the website acknowledges one.
+ */
+public class PlayersDeltaTracker {
+
+    private static final int MAX_PENDING_SNAPSHOTS = 16;
+
+    private final Map<Long, Map<UUID, PlayerData>> pendingSnapshots = new LinkedHashMap<>();
+
+    private Map<UUID, PlayerData> acknowledged;
+    private long acknowledgedSequence;
+    private long sequence;
+
+    /**
+     * Replace the players list of the given data by a delta from the acknowledged players list,
+     * or by a full snapshot if there is no acknowledged list yet.
+     *
+     * @param data the server data with all the online players
+     * @return the server data to send
+     */
+    public synchronized ServerData prepare(ServerData data) {
+        Map<UUID, PlayerData> players = new LinkedHashMap<>();
+
+        for (PlayerData player : data.getPlayers()) {
+            players.put(player.getUuid(), player);
+        }
+
+        long sequence = ++this.sequence;
+
+        this.pendingSnapshots.put(sequence, players);
+
+        if (this.pendingSnapshots.size() > MAX_PENDING_SNAPSHOTS) {
+            Iterator<Long> iterator = this.pendingSnapshots.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+
+        if (this.acknowledged == null) {
+            return data.withPlayersSnapshot(sequence);
+        }
+
+        List<PlayerData> joined = new ArrayList<>();
+        List<PlayerData> left = new ArrayList<>();
+
+        for (PlayerData player : players.values()) {
+            PlayerData previous = this.acknowledged.get(player.getUuid());
+
+            // A player who changed name while offline is sent again
+            if (previous == null || !Objects.equals(previous.getName(), player.getName())) {
+                joined.add(player);
+            }
+        }
+
+        for (PlayerData player : this.acknowledged.values()) {
+            if (!players.containsKey(player.getUuid())) {
+                left.add(player);
+            }
+        }
+
+        return data.withPlayersDelta(sequence, this.acknowledgedSequence, joined, left);
+    }
+
+    /**
+     * Update the acknowledged players list from the website response.
+     *
+     * @param response the website response
+     */
+    public synchronized void acknowledge(WebsiteResponse response) {
+        Long sequence = response.getPlayersSequence();
+
+        if (response.isPlayersSnapshotRequired() || sequence == null) {
+            reset();
+            return;
+        }
+
+        Map<UUID, PlayerData> snapshot = this.pendingSnapshots.get(sequence);
+
+        if (snapshot == null) {
+            return;
+        }
+
+        this.acknowledged = snapshot;
+        this.acknowledgedSequence = sequence;
+        this.pendingSnapshots.keySet().removeIf(pending -> pending <= sequence);
+    }
+
+    /**
+     * Send a full players snapshot in the next request.
+     */
+    public synchronized void reset() {
+        this.acknowledged = null;
+        this.pendingSnapshots.clear();
+    }
+}
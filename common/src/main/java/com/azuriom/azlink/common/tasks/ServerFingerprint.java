@@ -0,0 +1,48 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.data.PlatformData;
+import com.azuriom.azlink.common.data.PlayerData;
+import com.azuriom.azlink.common.data.ServerData;
+
+import java.util.Objects;
+
+/**
+ * Cheap fingerprint of the data sent to the website, to detect when nothing changed since the last request.
+ * The players order doesn't change the fingerprint.
+ */
+public final class ServerFingerprint {
+
+    private ServerFingerprint() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static long compute(ServerData data) {
+        long players = 0;
+
+        for (PlayerData player : data.getPlayers()) {
+            long uuid = player.getUuid().getMostSignificantBits() ^ Long.rotateLeft(player.getUuid().getLeastSignificantBits(), 32);
+
+            // Sum of the players hashes, so the order doesn't matter
+            players += mix(uuid ^ Objects.hashCode(player.getName()));
+        }
+
+        PlatformData platform = data.getPlatform();
+        long hash = mix(players);
+        hash = mix(hash ^ data.getPlayers().size());
+        hash = mix(hash ^ data.getMaxPlayers());
+        hash = mix(hash ^ Objects.hashCode(data.getVersion()));
+
+        if (platform != null) {
+            hash = mix(hash ^ Objects.hash(platform.getType(), platform.getName(), platform.getVersion()));
+        }
+
+        return hash;
+    }
+
+    private static long mix(long value) {
+        // SplitMix64 finalizer
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
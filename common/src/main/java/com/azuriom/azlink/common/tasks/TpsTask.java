@@ -6,7 +6,7 @@ public class TpsTask implements Runnable {
 
     private static final long TPS_TIME = TimeUnit.SECONDS.toNanos(20);
 
-    private double tps = 20;
+    private volatile double tps = 20;
     private int currentTick = 0;
 
     private long lastTickTime = 0;
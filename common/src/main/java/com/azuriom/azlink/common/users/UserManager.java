@@ -25,8 +25,12 @@ public class UserManager {
         this.usersByName.put(user.getName(), user);
     }
 
+    public int getUsersCount() {
+        return this.usersByName.size();
+    }
+
     public CompletableFuture<UserInfo> editMoney(UserInfo user, MoneyAction action, double amount) {
-        return this.plugin.getHttpClient().editMoney(user, action.toString(), amount)
+        return this.plugin.getOutbox().editMoney(user, action.toString(), amount)
                 .thenApply(result -> {
                     user.setMoney(result.getNewBalance());
                     return user;
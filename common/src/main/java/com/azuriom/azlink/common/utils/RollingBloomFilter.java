@@ -0,0 +1,160 @@
+package com.azuriom.azlink.common.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A bloom filter that only remembers the most recent values, with a bounded memory usage. The values are
+ * added to the current generation, and the previous generation is dropped when the current one is full,
+ * so the last {@code capacity} values are always remembered.
+ *
+ * <p>Like any bloom filter, {@link #mightContain(String)} can return true for a value that was never
+ * added, with a probability close to the false positive rate given in the constructor.</p>
+ */
+public class RollingBloomFilter {
+
+    private final int capacity;
+    private final int bits;
+    private final int hashes;
+
+    private long[] current;
+    private long[] previous;
+    private int currentCount;
+
+    public RollingBloomFilter(int capacity, double falsePositiveRate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        // Optimal number of bits and hashes for the expected number of values in a generation
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+
+        this.capacity = capacity;
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) this.bits / capacity * ln2));
+        this.current = new long[(this.bits + 63) / 64];
+        this.previous = new long[this.current.length];
+    }
+
+    public synchronized void add(String value) {
+        if (this.currentCount >= this.capacity) {
+            long[] oldest = this.previous;
+            Arrays.fill(oldest, 0);
+
+            this.previous = this.current;
+            this.current = oldest;
+            this.currentCount = 0;
+        }
+
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+
+        for (int i = 0; i < this.hashes; i++) {
+            int bit = index(hash1, hash2, i);
+
+            this.current[bit >>> 6] |= 1L << bit;
+        }
+
+        this.currentCount++;
+    }
+
+    public synchronized boolean mightContain(String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+
+        return contains(this.current, hash1, hash2) || contains(this.previous, hash1, hash2);
+    }
+
+    /**
+     * Write the state of this filter, to be read later with {@link #readFrom(DataInputStream)}.
+     *
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(this.capacity);
+        out.writeInt(this.bits);
+        out.writeInt(this.hashes);
+        out.writeInt(this.currentCount);
+
+        for (long word : this.current) {
+            out.writeLong(word);
+        }
+
+        for (long word : this.previous) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Replace the state of this filter with a state written by {@link #writeTo(DataOutputStream)}.
+     *
+     * @param in the input to read from
+     * @return false if the state was written by a filter with a different capacity or false positive rate
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != this.capacity || in.readInt() != this.bits || in.readInt() != this.hashes) {
+            return false;
+        }
+
+        int count = in.readInt();
+        long[] current = new long[this.current.length];
+        long[] previous = new long[this.previous.length];
+
+        for (int i = 0; i < current.length; i++) {
+            current[i] = in.readLong();
+        }
+
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = in.readLong();
+        }
+
+        this.current = current;
+        this.previous = previous;
+        this.currentCount = Math.max(0, Math.min(count, this.capacity));
+
+        return true;
+    }
+
+    private boolean contains(long[] words, long hash1, long hash2) {
+        for (int i = 0; i < this.hashes; i++) {
+            int bit = index(hash1, hash2, i);
+
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int index(long hash1, long hash2, int i) {
+        // Double hashing, to get the k indexes from only two hashes
+        long combined = hash1 + i * hash2;
+
+        return (int) ((combined & Long.MAX_VALUE) % this.bits);
+    }
+
+    private static long hash(String value, long seed) {
+        long hash = seed;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+
+        // Final mix from SplitMix64, so similar values get unrelated hashes
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+
+        return hash ^ (hash >>> 31);
+    }
+}
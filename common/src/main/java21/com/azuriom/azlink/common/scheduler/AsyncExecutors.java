@@ -0,0 +1,28 @@
+package com.azuriom.azlink.common.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Create the executor of the async tasks, when the platform doesn't provide one.
+ *
+ * <p>This is the Java 21 version of this class, using a virtual thread for each task, so the blocking
+ * HTTP requests don't delay the scheduled tasks.</p>
+ */
+final class AsyncExecutors {
+
+    private AsyncExecutors() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create the executor of the async tasks.
+     *
+     * @param scheduler the scheduler of the delayed tasks
+     * @return a new executor starting a virtual thread for each task
+     */
+    static ExecutorService create(ScheduledExecutorService scheduler) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("azlink-async-", 0).factory());
+    }
+}
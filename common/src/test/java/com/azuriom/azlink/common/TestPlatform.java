@@ -0,0 +1,96 @@
+package com.azuriom.azlink.common;
+
+import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.logger.JavaLoggerAdapter;
+import com.azuriom.azlink.common.logger.LoggerAdapter;
+import com.azuriom.azlink.common.platform.PlatformInfo;
+import com.azuriom.azlink.common.platform.PlatformType;
+import com.azuriom.azlink.common.scheduler.JavaSchedulerAdapter;
+import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Platform used by the tests, with the main thread tasks executed directly by the calling thread.
+ */
+public class TestPlatform implements AzLinkPlatform {
+
+    private final List<String> dispatchedCommands = Collections.synchronizedList(new ArrayList<>());
+    private final List<CommandSender> onlinePlayers = new ArrayList<>();
+    private final Path dataDirectory;
+    private final SchedulerAdapter scheduler;
+    private final AzLinkPlugin plugin;
+
+    public TestPlatform(Path dataDirectory) {
+        this(dataDirectory, new JavaSchedulerAdapter(Runnable::run));
+    }
+
+    public TestPlatform(Path dataDirectory, SchedulerAdapter scheduler) {
+        this.dataDirectory = dataDirectory;
+        this.scheduler = scheduler;
+        this.plugin = new AzLinkPlugin(this);
+    }
+
+    public List<String> getDispatchedCommands() {
+        return this.dispatchedCommands;
+    }
+
+    public void addOnlinePlayer(CommandSender player) {
+        this.onlinePlayers.add(player);
+    }
+
+    @Override
+    public AzLinkPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    @Override
+    public LoggerAdapter getLoggerAdapter() {
+        return new JavaLoggerAdapter(Logger.getLogger("AzLink"));
+    }
+
+    @Override
+    public SchedulerAdapter getSchedulerAdapter() {
+        return this.scheduler;
+    }
+
+    @Override
+    public PlatformType getPlatformType() {
+        return PlatformType.BUKKIT;
+    }
+
+    @Override
+    public PlatformInfo getPlatformInfo() {
+        return new PlatformInfo("Test", "1.0");
+    }
+
+    @Override
+    public String getPluginVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public Path getDataDirectory() {
+        return this.dataDirectory;
+    }
+
+    @Override
+    public Stream<CommandSender> getOnlinePlayers() {
+        return this.onlinePlayers.stream();
+    }
+
+    @Override
+    public int getMaxPlayers() {
+        return 20;
+    }
+
+    @Override
+    public void dispatchConsoleCommand(String command) {
+        this.dispatchedCommands.add(command);
+    }
+}
@@ -0,0 +1,129 @@
+package com.azuriom.azlink.common.gson;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.data.WebsiteCommand;
+import com.azuriom.azlink.common.data.WebsiteResponse;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebsiteResponseReaderTest {
+
+    @Test
+    void testRead() throws IOException {
+        String json = "{\"commands\":{\"Steve\":[\"say hi {player}\",\"give {player} diamond\"],\"Alex\":[\"say yo\"]},"
+                + "\"extra\":{\"ignored\":[1,2]},\"users\":[{\"id\":1,\"name\":\"Steve\",\"money\":3.5}]}";
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+
+        WebsiteResponse response = read(json, commands);
+
+        assertEquals(Arrays.asList("say hi {player}", "give {player} diamond"), commands.get("Steve"));
+        assertEquals(Collections.singletonList("say yo"), commands.get("Alex"));
+        assertEquals(Arrays.asList("Steve", "Alex"), Arrays.asList(commands.keySet().toArray()));
+        assertTrue(response.getWebsiteCommands().isEmpty());
+        assertEquals(1, response.getUsers().size());
+        assertEquals("Steve", response.getUsers().get(0).getName());
+        assertEquals(3.5, response.getUsers().get(0).getMoney());
+    }
+
+    @Test
+    void testReadCommandObjects() throws IOException {
+        String json = "{\"commands\":{\"Steve\":[\"say hi\",{\"command\":\"give {player} diamond\",\"online\":true},"
+                + "{\"online\":true},42]}}";
+        Map<String, List<WebsiteCommand>> commands = new LinkedHashMap<>();
+
+        new WebsiteResponseReader(commands::put).read(new JsonReader(new StringReader(json)));
+
+        List<WebsiteCommand> steveCommands = commands.get("Steve");
+
+        assertEquals(2, steveCommands.size());
+        assertEquals("say hi", steveCommands.get(0).getCommand());
+        assertFalse(steveCommands.get(0).isOnlineRequired());
+        assertEquals("give {player} diamond", steveCommands.get(1).getCommand());
+        assertTrue(steveCommands.get(1).isOnlineRequired());
+    }
+
+    @Test
+    void testReadUsers() throws IOException {
+        String json = "{\"users\":[{\"id\":1,\"name\":\"Steve\",\"money\":3.5}],\"commands\":{\"Steve\":[\"say hi\"]}}";
+        List<String> events = new ArrayList<>();
+
+        WebsiteResponseReader reader = new WebsiteResponseReader((player, playerCommands) -> events.add("commands:" + player),
+                users -> events.add("users:" + users.size()));
+        reader.read(new JsonReader(new StringReader(json)));
+
+        assertEquals(Arrays.asList("users:1", "commands:Steve"), events);
+
+        events.clear();
+        reader.read(new JsonReader(new StringReader("{\"commands\":{\"Alex\":[\"say yo\"]}}")));
+
+        assertEquals(Arrays.asList("commands:Alex", "users:0"), events);
+    }
+
+    @Test
+    void testReadError() {
+        List<String> events = new ArrayList<>();
+        WebsiteResponseReader reader = new WebsiteResponseReader((player, playerCommands) -> events.add("commands:" + player),
+                users -> events.add("users:" + users.size()));
+
+        // The commands read before the error were already sent to the handler
+        String usersFirst = "{\"users\":[{\"id\":1,\"name\":\"Steve\"}],\"commands\":{\"Steve\":[\"say hi\"],\"Alex\":[";
+
+        assertThrows(IOException.class, () -> reader.read(new JsonReader(new StringReader(usersFirst))));
+        assertEquals(Arrays.asList("users:1", "commands:Steve"), events);
+
+        // Without the users, the commands must not be dispatched
+        events.clear();
+        String commandsFirst = "{\"commands\":{\"Steve\":[\"say hi\"]},";
+
+        assertThrows(IOException.class, () -> reader.read(new JsonReader(new StringReader(commandsFirst))));
+        assertEquals(Collections.singletonList("commands:Steve"), events);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testBindResponse() {
+        String json = "{\"commands\":{\"Steve\":[\"say hi\",{\"id\":7,\"command\":\"give {player} diamond\",\"online\":true}]}}";
+
+        WebsiteResponse response = AzLinkPlugin.getGson().fromJson(json, WebsiteResponse.class);
+        List<WebsiteCommand> steveCommands = response.getWebsiteCommands().get("Steve");
+
+        assertEquals(2, steveCommands.size());
+        assertEquals("say hi", steveCommands.get(0).getCommand());
+        assertEquals("7", steveCommands.get(1).getId());
+        assertTrue(steveCommands.get(1).isOnlineRequired());
+        assertEquals(Arrays.asList("say hi", "give {player} diamond"), response.getCommands().get("Steve"));
+    }
+
+    @Test
+    void testReadEmptyCommands() throws IOException {
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+
+        WebsiteResponse response = read("{\"commands\":[],\"users\":[]}", commands);
+
+        assertTrue(commands.isEmpty());
+        assertTrue(response.getUsers().isEmpty());
+    }
+
+    private static WebsiteResponse read(String json, Map<String, List<String>> commands) throws IOException {
+        WebsiteResponseReader reader = new WebsiteResponseReader((player, playerCommands) -> {
+            commands.put(player, playerCommands.stream().map(WebsiteCommand::getCommand).collect(Collectors.toList()));
+        });
+
+        return reader.read(new JsonReader(new StringReader(json)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.azuriom.azlink.common.http.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60_000, 60_000, () -> CompletableFuture.completedFuture(null));
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> breaker.acquire().join());
+        assertTrue(ex.getCause() instanceof CircuitOpenException);
+    }
+
+    @Test
+    void testHalfOpenProbe() {
+        AtomicInteger probes = new AtomicInteger();
+        CompletableFuture<Void> probe = new CompletableFuture<>();
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 0, () -> {
+            probes.incrementAndGet();
+            return probe;
+        });
+
+        breaker.recordFailure();
+
+        CompletableFuture<Void> first = breaker.acquire();
+        CompletableFuture<Void> second = breaker.acquire();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        assertEquals(1, probes.get());
+
+        probe.complete(null);
+
+        assertTrue(first.isDone() && !first.isCompletedExceptionally());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testFailedProbeOpensAgain() {
+        CompletableFuture<Void> probe = new CompletableFuture<>();
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 0, () -> probe);
+
+        breaker.recordFailure();
+
+        CompletableFuture<Void> future = breaker.acquire();
+        probe.completeExceptionally(new IOException("Connection refused"));
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
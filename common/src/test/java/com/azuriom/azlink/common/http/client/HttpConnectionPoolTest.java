@@ -0,0 +1,108 @@
+package com.azuriom.azlink.common.http.client;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HttpConnectionPoolTest {
+
+    private static final String RESPONSE = "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok";
+
+    @Test
+    void testGetSentAgainWhenClosedAfterRequest() throws Exception {
+        withClosingServer((pool, url, requests) -> {
+            assertEquals(200, execute(pool, url, "GET"));
+            assertEquals(200, execute(pool, url, "GET"));
+            assertEquals(3, requests.get());
+            assertEquals(2, pool.getMisses());
+        });
+    }
+
+    @Test
+    void testPostNotSentAgainWhenClosedAfterRequest() throws Exception {
+        withClosingServer((pool, url, requests) -> {
+            assertEquals(200, execute(pool, url, "POST"));
+            assertThrows(IOException.class, () -> execute(pool, url, "POST"));
+            assertEquals(2, requests.get());
+        });
+    }
+
+    private static int execute(HttpConnectionPool pool, URL url, String method) throws IOException {
+        HttpResponse response = pool.execute(url, method, Collections.emptyMap(), null, 0);
+
+        response.getBody().close();
+
+        return response.getStatus();
+    }
+
+    /**
+     * Start a server answering the first request of each connection, and closing the connection
+     * without response on the second one, like a server whose keep-alive timeout just expired.
+     */
+    private static void withClosingServer(PoolTest test) throws Exception {
+        HttpConnectionPool pool = new HttpConnectionPool(new AzLinkPlugin(null), 1000, 1000);
+        AtomicInteger requests = new AtomicInteger();
+
+        try (ServerSocket server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress())) {
+            Thread thread = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try (Socket socket = server.accept()) {
+                        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                        OutputStream out = socket.getOutputStream();
+
+                        readRequest(in);
+                        requests.incrementAndGet();
+                        out.write(RESPONSE.getBytes(StandardCharsets.US_ASCII));
+                        out.flush();
+
+                        if (readRequest(in)) {
+                            requests.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // Server closed
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+
+            test.run(pool, new URL("http://127.0.0.1:" + server.getLocalPort() + "/api"), requests);
+        } finally {
+            pool.close();
+        }
+    }
+
+    private static boolean readRequest(BufferedReader in) throws IOException {
+        String line = in.readLine();
+
+        if (line == null) {
+            return false;
+        }
+
+        while (line != null && !line.isEmpty()) {
+            line = in.readLine();
+        }
+
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface PoolTest {
+
+        void run(HttpConnectionPool pool, URL url, AtomicInteger requests) throws Exception;
+    }
+}
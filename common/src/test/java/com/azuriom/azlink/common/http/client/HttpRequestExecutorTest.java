@@ -0,0 +1,126 @@
+package com.azuriom.azlink.common.http.client;
+
+import com.azuriom.azlink.common.TestPlatform;
+import com.azuriom.azlink.common.config.PluginConfig;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpRequestExecutorTest {
+
+    @Test
+    void testAbort() throws Exception {
+        withFullQueue(HttpRequestExecutor.RejectionPolicy.ABORT, (executor, release) -> {
+            CompletableFuture<String> rejected = executor.submit(() -> "rejected");
+
+            assertRejected(rejected);
+            assertEquals(1, executor.getRejectedCount());
+            assertEquals(0, executor.getCallerRunsCount());
+        });
+    }
+
+    @Test
+    void testDiscardOldest() throws Exception {
+        withFullQueue(HttpRequestExecutor.RejectionPolicy.DISCARD_OLDEST, (executor, release) -> {
+            CompletableFuture<String> newest = executor.submit(() -> "newest");
+
+            assertRejected(executor.queued);
+            assertEquals(1, executor.getRejectedCount());
+            assertEquals(0, executor.getCallerRunsCount());
+
+            release.countDown();
+
+            assertEquals("newest", newest.get(5, TimeUnit.SECONDS));
+        });
+    }
+
+    @Test
+    void testCallerRuns() throws Exception {
+        withFullQueue(HttpRequestExecutor.RejectionPolicy.CALLER_RUNS, (executor, release) -> {
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Boolean> sent = executor.submit(() -> Thread.currentThread() == caller);
+
+            assertTrue(sent.get(5, TimeUnit.SECONDS));
+            assertEquals(0, executor.getRejectedCount());
+            assertEquals(1, executor.getCallerRunsCount());
+
+            release.countDown();
+
+            assertEquals("queued", executor.queued.get(5, TimeUnit.SECONDS));
+        });
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+
+    /**
+     * Create an executor with a single thread busy and a full queue, with the given rejection policy.
+     */
+    private static void withFullQueue(HttpRequestExecutor.RejectionPolicy policy, ExecutorTest test) throws Exception {
+        TestPlatform platform = new TestPlatform(Paths.get("azlink"));
+        PluginConfig config = platform.getPlugin().getConfig();
+        setConfig(config, "httpClientThreads", 1);
+        setConfig(config, "httpClientQueueSize", 1);
+        setConfig(config, "httpClientRejectionPolicy", policy);
+
+        TestExecutor executor = new TestExecutor(platform);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            executor.submit(() -> {
+                started.countDown();
+
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return "running";
+            });
+            started.await(5, TimeUnit.SECONDS);
+
+            executor.queued = executor.submit(() -> "queued");
+
+            test.run(executor, release);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void setConfig(PluginConfig config, String name, Object value) throws ReflectiveOperationException {
+        Field field = PluginConfig.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(config, value);
+    }
+
+    private static class TestExecutor extends HttpRequestExecutor {
+
+        private CompletableFuture<String> queued;
+
+        public TestExecutor(TestPlatform platform) {
+            super(platform.getPlugin());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExecutorTest {
+
+        void run(TestExecutor executor, CountDownLatch release) throws Exception;
+    }
+}
@@ -0,0 +1,150 @@
+package com.azuriom.azlink.common.http.client;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpResponseTest {
+
+    @Test
+    void testContentLength() throws IOException {
+        String body = read("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 5\r\n\r\nhello", 1);
+
+        assertEquals("hello", body);
+    }
+
+    @Test
+    void testChunked() throws IOException {
+        String response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;name=value\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: test\r\n\r\n";
+
+        assertEquals("hello world", read(response, 1));
+    }
+
+    @Test
+    void testConnectionClose() throws IOException {
+        assertEquals("ok", read("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 2\r\n\r\nok", 0));
+    }
+
+    @Test
+    void testHttp10KeepAlive() throws IOException {
+        assertEquals("ok", read("HTTP/1.0 200 OK\r\nContent-Length: 2\r\n\r\nok", 0));
+        assertEquals("ok", read("HTTP/1.0 200 OK\r\nConnection: Keep-Alive\r\nContent-Length: 2\r\n\r\nok", 1));
+    }
+
+    @Test
+    void testBodyUntilClose() throws IOException {
+        assertEquals("until close", read("HTTP/1.1 200 OK\r\n\r\nuntil close", 0));
+    }
+
+    @Test
+    void testNoContent() throws IOException {
+        assertEquals("", read("HTTP/1.1 204 No Content\r\n\r\n", 1));
+    }
+
+    @Test
+    void testInformationalResponseSkipped() throws IOException {
+        assertEquals("ok", read("HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 200 OK\r\ncontent-length: 2\r\n\r\nok", 1));
+    }
+
+    @Test
+    void testUnreadBodyDrainedOnClose() throws IOException {
+        withConnection((pool, connection) -> {
+            HttpResponse response = HttpResponse.read(connection, stream("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nhello"), pool);
+
+            response.getBody().close();
+
+            assertEquals(1, pool.getIdleConnections());
+        });
+    }
+
+    @Test
+    void testKeepAliveTimeout() throws IOException {
+        withConnection((pool, connection) -> {
+            long before = System.currentTimeMillis();
+            HttpResponse response = HttpResponse.read(connection,
+                    stream("HTTP/1.1 200 OK\r\nKeep-Alive: timeout=5, max=100\r\nContent-Length: 0\r\n\r\n"), pool);
+
+            assertEquals(200, response.getStatus());
+            assertEquals("timeout=5, max=100", response.getHeader("keep-alive"));
+            assertTrue(connection.getKeepAliveUntil() >= before + 5000);
+            assertTrue(connection.getKeepAliveUntil() <= System.currentTimeMillis() + 5000);
+        });
+    }
+
+    @Test
+    void testTruncatedBody() throws IOException {
+        withConnection((pool, connection) -> {
+            HttpResponse response = HttpResponse.read(connection, stream("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nshort"), pool);
+
+            assertThrows(EOFException.class, () -> readAll(response.getBody()));
+        });
+    }
+
+    private static String read(String rawResponse, int expectedIdleConnections) throws IOException {
+        StringBuilder result = new StringBuilder();
+
+        withConnection((pool, connection) -> {
+            HttpResponse response = HttpResponse.read(connection, stream(rawResponse), pool);
+
+            try (InputStream body = response.getBody()) {
+                result.append(readAll(body));
+            }
+
+            assertEquals(expectedIdleConnections, pool.getIdleConnections());
+        });
+
+        return result.toString();
+    }
+
+    private static void withConnection(ConnectionTest test) throws IOException {
+        HttpConnectionPool pool = new HttpConnectionPool(new AzLinkPlugin(null), 1000, 1000);
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            URL url = new URL("http://127.0.0.1:" + server.getLocalPort() + "/api");
+            HttpConnection connection = HttpConnection.open(pool, url, 1000, 1000);
+
+            try {
+                test.run(pool, connection);
+            } finally {
+                pool.close();
+                connection.close();
+            }
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3]; // Small buffer to read the chunks in multiple parts
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionTest {
+
+        void run(HttpConnectionPool pool, HttpConnection connection) throws IOException;
+    }
+}
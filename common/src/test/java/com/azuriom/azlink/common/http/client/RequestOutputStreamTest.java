@@ -0,0 +1,137 @@
+package com.azuriom.azlink.common.http.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestOutputStreamTest {
+
+    private static final int LARGE_BODY_SIZE = 100 * 1024;
+
+    @Test
+    void testSmallBody() throws IOException {
+        Request request = write(body(100), 1024);
+
+        assertTrue(request.head.contains("Content-Length: 100\r\n"));
+        assertFalse(request.head.contains("Content-Encoding"));
+        assertArrayEquals(body(100), request.body);
+    }
+
+    @Test
+    void testCompressedBody() throws IOException {
+        Request request = write(body(2048), 1024);
+
+        assertTrue(request.head.contains("Content-Encoding: gzip\r\n"));
+        assertTrue(request.head.contains("Content-Length: " + request.body.length + "\r\n"));
+        assertArrayEquals(body(2048), gunzip(request.body));
+    }
+
+    @Test
+    void testLargeBodyWithoutCompression() throws IOException {
+        Request request = write(body(LARGE_BODY_SIZE), -1);
+
+        assertTrue(request.head.contains("Content-Length: " + LARGE_BODY_SIZE + "\r\n"));
+        assertFalse(request.head.contains("Transfer-Encoding"));
+        assertFalse(request.head.contains("Content-Encoding"));
+        assertArrayEquals(body(LARGE_BODY_SIZE), request.body);
+    }
+
+    @Test
+    void testLargeCompressedBodyChunked() throws IOException {
+        Request request = write(body(LARGE_BODY_SIZE), 1024);
+
+        assertTrue(request.head.contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(request.head.contains("Content-Encoding: gzip\r\n"));
+        assertFalse(request.head.contains("Content-Length"));
+        assertArrayEquals(body(LARGE_BODY_SIZE), gunzip(dechunk(request.body)));
+    }
+
+    private static Request write(byte[] body, int compressionThreshold) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder head = new StringBuilder("POST /api HTTP/1.1\r\n");
+        RequestOutputStream stream = new RequestOutputStream(out, head, compressionThreshold);
+
+        // Write the body in several parts, like a JSON writer
+        for (int i = 0; i < body.length; i += 1000) {
+            stream.write(body, i, Math.min(1000, body.length - i));
+        }
+
+        stream.finish();
+
+        byte[] request = out.toByteArray();
+        String text = new String(request, StandardCharsets.ISO_8859_1);
+        int headEnd = text.indexOf("\r\n\r\n") + 4;
+
+        return new Request(text.substring(0, headEnd), Arrays.copyOfRange(request, headEnd, request.length));
+    }
+
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + (i * 7 % 26));
+        }
+
+        return body;
+    }
+
+    private static byte[] gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return readAll(in);
+        }
+    }
+
+    private static byte[] dechunk(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String text = new String(content, StandardCharsets.ISO_8859_1);
+        int position = 0;
+
+        while (true) {
+            int lineEnd = text.indexOf("\r\n", position);
+            int size = Integer.parseInt(text.substring(position, lineEnd), 16);
+
+            if (size == 0) {
+                assertEquals("\r\n", text.substring(lineEnd + 2));
+
+                return out.toByteArray();
+            }
+
+            out.write(content, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static class Request {
+
+        private final String head;
+        private final byte[] body;
+
+        public Request(String head, byte[] body) {
+            this.head = head;
+            this.body = body;
+        }
+    }
+}
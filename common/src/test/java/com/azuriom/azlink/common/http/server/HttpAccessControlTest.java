@@ -0,0 +1,87 @@
+package com.azuriom.azlink.common.http.server;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.utils.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpAccessControlTest {
+
+    @Test
+    void testRequestsRateLimit() {
+        AzLinkPlugin plugin = new AzLinkPlugin(null);
+        HttpAccessControl accessControl = new HttpAccessControl(plugin);
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 50000);
+        int limit = plugin.getConfig().getHttpRequestsPerMinute();
+
+        for (int i = 0; i < limit; i++) {
+            assertTrue(accessControl.tryAcquireRequest(address, null));
+        }
+
+        assertFalse(accessControl.tryAcquireRequest(address, null));
+        assertTrue(accessControl.tryAcquireRequest(new InetSocketAddress("127.0.0.2", 50000), null));
+        assertEquals(1, accessControl.getRateLimitedRequests());
+    }
+
+    @Test
+    void testAuthorizedRequestsNotLimited() {
+        AzLinkPlugin plugin = new AzLinkPlugin(null);
+        HttpAccessControl accessControl = new HttpAccessControl(plugin);
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 50000);
+        int limit = plugin.getConfig().getHttpRequestsPerMinute();
+
+        plugin.getConfig().setSiteKey("key");
+
+        for (int i = 0; i < limit; i++) {
+            assertTrue(accessControl.tryAcquireRequest(address, null));
+        }
+
+        assertFalse(accessControl.tryAcquireRequest(address, Hash.SHA_256.hash("other")));
+
+        for (int i = 0; i < limit * 2; i++) {
+            assertTrue(accessControl.tryAcquireRequest(address, Hash.SHA_256.hash("key")));
+        }
+
+        assertEquals(1, accessControl.getRateLimitedRequests());
+        assertEquals(0, accessControl.getUnauthorizedRequests());
+    }
+
+    @Test
+    void testConnectionsLimit() {
+        AzLinkPlugin plugin = new AzLinkPlugin(null);
+        HttpAccessControl accessControl = new HttpAccessControl(plugin);
+        int limit = plugin.getConfig().getHttpMaxConnections();
+
+        for (int i = 0; i < limit; i++) {
+            assertTrue(accessControl.tryAcquireConnection());
+        }
+
+        assertFalse(accessControl.tryAcquireConnection());
+
+        accessControl.releaseConnection();
+        assertTrue(accessControl.tryAcquireConnection());
+        assertEquals(1, accessControl.getRejectedConnections());
+    }
+
+    @Test
+    void testAuthorization() {
+        AzLinkPlugin plugin = new AzLinkPlugin(null);
+        HttpAccessControl accessControl = new HttpAccessControl(plugin);
+
+        assertFalse(accessControl.isAuthorized(Hash.SHA_256.hash("key")));
+
+        plugin.getConfig().setSiteKey("key");
+        assertTrue(accessControl.isAuthorized(Hash.SHA_256.hash("key")));
+        assertFalse(accessControl.isAuthorized(Hash.SHA_256.hash("other")));
+        assertFalse(accessControl.isAuthorized(null));
+
+        plugin.getConfig().setSiteKey("other");
+        assertTrue(accessControl.isAuthorized(Hash.SHA_256.hash("other")));
+        assertEquals(3, accessControl.getUnauthorizedRequests());
+    }
+}
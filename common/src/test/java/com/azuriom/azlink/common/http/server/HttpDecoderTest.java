@@ -0,0 +1,73 @@
+package com.azuriom.azlink.common.http.server;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpDecoderTest {
+
+    @Test
+    void testGameConnection() {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpDecoder(null));
+        // Handshake packet start
+        ByteBuf handshake = Unpooled.wrappedBuffer(new byte[]{0x10, 0x00, (byte) 0xfb, 0x05, 0x09});
+
+        channel.writeInbound(handshake);
+
+        // The same buffer is passed to the next handlers, without copy or retain
+        assertSame(handshake, channel.readInbound());
+        assertEquals(1, handshake.refCnt());
+        assertNull(channel.pipeline().get(HttpDecoder.class));
+
+        handshake.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testSplitGameConnection() {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpDecoder(null));
+        ByteBuf first = Unpooled.wrappedBuffer(new byte[]{'P', 'O'});
+
+        channel.writeInbound(first);
+        assertNull(channel.readInbound());
+
+        channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{'N', 'G'}));
+
+        ByteBuf result = channel.readInbound();
+        assertEquals("PONG", result.toString(StandardCharsets.US_ASCII));
+        assertNull(channel.pipeline().get(HttpDecoder.class));
+
+        result.release();
+        assertEquals(0, first.refCnt());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testHttpRequest() {
+        AzLinkPlugin plugin = new AzLinkPlugin(null);
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpDecoder(plugin));
+        String request = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        channel.writeInbound(Unpooled.copiedBuffer(request, StandardCharsets.US_ASCII));
+
+        assertNotNull(channel.pipeline().get("codec-http"));
+
+        ByteBuf response = channel.readOutbound();
+        assertTrue(response.toString(StandardCharsets.US_ASCII).startsWith("HTTP/1.1 200 OK"));
+
+        response.release();
+        channel.finishAndReleaseAll();
+
+        assertEquals(0, plugin.getHttpAccessControl().getOpenConnections());
+    }
+}
@@ -0,0 +1,38 @@
+package com.azuriom.azlink.common.http.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushVerifierTest {
+
+    private static final String KEY = "site-key";
+    private static final byte[] BODY = "{\"commands\":{\"Steve\":[\"say hi\"]}}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testVerify() {
+        PushVerifier verifier = new PushVerifier();
+        long now = System.currentTimeMillis() / 1000;
+        String signature = PushVerifier.sign(KEY, now, BODY);
+
+        assertFalse(verifier.verify("other-key", Long.toString(now), signature, BODY));
+        assertFalse(verifier.verify(KEY, Long.toString(now + 1), signature, BODY));
+        assertFalse(verifier.verify(KEY, Long.toString(now), signature, "{}".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(verifier.verify(KEY, Long.toString(now), signature, BODY));
+
+        // The same request can't be used twice
+        assertFalse(verifier.verify(KEY, Long.toString(now), signature, BODY));
+    }
+
+    @Test
+    void testExpiredTimestamp() {
+        PushVerifier verifier = new PushVerifier();
+        long time = System.currentTimeMillis() / 1000 - 600;
+
+        assertFalse(verifier.verify(KEY, Long.toString(time), PushVerifier.sign(KEY, time, BODY), BODY));
+        assertFalse(verifier.verify(KEY, null, null, BODY));
+    }
+}
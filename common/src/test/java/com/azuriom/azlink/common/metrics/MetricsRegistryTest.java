@@ -0,0 +1,41 @@
+package com.azuriom.azlink.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testWrite() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("test_requests_total", "Requests", "endpoint");
+        Timer timer = registry.timer("test_duration_seconds", "Duration");
+
+        counter.increment("/a\"b");
+        counter.add(2, "/a\"b");
+        timer.record(1500, TimeUnit.MILLISECONDS);
+        registry.gauge("test_players", "Players", () -> 12);
+        registry.gauge("test_unavailable", "Unavailable", () -> -1);
+
+        assertSame(counter, registry.counter("test_requests_total", "Requests", "endpoint"));
+
+        String expected = "# HELP test_duration_seconds Duration\n"
+                + "# TYPE test_duration_seconds summary\n"
+                + "test_duration_seconds_count 1\n"
+                + "test_duration_seconds_sum 1.5\n"
+                + "# HELP test_players Players\n"
+                + "# TYPE test_players gauge\n"
+                + "test_players 12\n"
+                + "# HELP test_requests_total Requests\n"
+                + "# TYPE test_requests_total counter\n"
+                + "test_requests_total{endpoint=\"/a\\\"b\"} 3\n"
+                + "# HELP test_unavailable Unavailable\n"
+                + "# TYPE test_unavailable gauge\n";
+
+        assertEquals(expected, registry.write());
+    }
+}
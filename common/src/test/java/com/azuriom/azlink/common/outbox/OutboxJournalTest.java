@@ -0,0 +1,59 @@
+package com.azuriom.azlink.common.outbox;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxJournalTest {
+
+    @Test
+    void testReplay() throws IOException {
+        Path file = Files.createTempDirectory("azlink").resolve("outbox.log");
+        OutboxJournal journal = new OutboxJournal(file, "key");
+
+        journal.append(entry(1, "secret-1"));
+        journal.append(entry(2, "secret-2"));
+        journal.append(entry(3, "secret-3"));
+        journal.remove(2);
+        journal.close();
+
+        // Simulate a crash while writing a record
+        Files.write(file, "0badc0de abc".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        OutboxJournal reloaded = new OutboxJournal(file, "key");
+        List<OutboxEntry> entries = reloaded.load();
+
+        assertEquals(2, entries.size());
+        assertEquals(1, entries.get(0).getId());
+        assertEquals("secret-3", entries.get(1).getParams().get("password").getAsString());
+        assertEquals(4, reloaded.getRecords());
+        assertEquals(1, reloaded.getCorrupted());
+
+        reloaded.compact(entries);
+
+        assertEquals(2, new OutboxJournal(file, "key").load().size());
+        assertTrue(new OutboxJournal(file, "other key").load().isEmpty());
+        // '-' is not a Base64 character, so it can't be part of an encrypted record by chance
+        assertTrue(Arrays.stream(new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).split("\n"))
+                .noneMatch(line -> line.contains("secret-")));
+    }
+
+    private static OutboxEntry entry(long id, String password) {
+        JsonObject params = new JsonObject();
+        params.addProperty("password", password);
+
+        return new OutboxEntry(id, OutboxEntry.Type.PASSWORD, "password:" + id, "/azlink/password",
+                params, "key-" + id, Instant.now());
+    }
+}
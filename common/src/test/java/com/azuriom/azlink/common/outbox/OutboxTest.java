@@ -0,0 +1,106 @@
+package com.azuriom.azlink.common.outbox;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.TestPlatform;
+import com.azuriom.azlink.common.scheduler.JavaSchedulerAdapter;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTest {
+
+    @Test
+    void testWriteAfterFailedWrite() throws IOException {
+        Path root = Files.createTempDirectory("azlink");
+        Path blocker = Files.createFile(root.resolve("blocked"));
+        Path directory = blocker.resolve("data");
+        Outbox outbox = createOutbox(new TestPlatform(directory));
+
+        // The data directory can't be created, so saving this entry fails
+        outbox.updatePassword(UUID.randomUUID(), "secret-1");
+        outbox.close(); // Wait for the pending writes
+        Files.delete(blocker);
+
+        outbox.updateEmail(UUID.randomUUID(), "steve@example.com");
+        outbox.close();
+
+        List<OutboxEntry> entries = new OutboxJournal(directory.resolve("outbox.log"), "key").load();
+
+        assertEquals(1, entries.size());
+        assertEquals(OutboxEntry.Type.EMAIL, entries.get(0).getType());
+    }
+
+    @Test
+    void testWriteWhenExecutorFails() throws IOException {
+        Path directory = Files.createTempDirectory("azlink");
+        JavaSchedulerAdapter scheduler = new JavaSchedulerAdapter(Runnable::run, runnable -> {
+            throw new IllegalStateException("Plugin disabled");
+        });
+        Outbox outbox = createOutbox(new TestPlatform(directory, scheduler));
+
+        outbox.updatePassword(UUID.randomUUID(), "secret-1");
+        outbox.updateEmail(UUID.randomUUID(), "steve@example.com");
+        outbox.close();
+
+        assertEquals(2, new OutboxJournal(directory.resolve("outbox.log"), "key").load().size());
+    }
+
+    @Test
+    void testExpiredMoneyUpdate() throws IOException {
+        Path directory = Files.createTempDirectory("azlink");
+        OutboxJournal journal = new OutboxJournal(directory.resolve("outbox.log"), "key");
+        JsonObject params = new JsonObject();
+        params.addProperty("amount", 10);
+
+        journal.append(new OutboxEntry(1, OutboxEntry.Type.MONEY, null, "/azlink/user/1/money/add", params,
+                "key-1", Instant.now().minus(1, ChronoUnit.HOURS)));
+        journal.close();
+
+        Outbox outbox = createOutbox(new TestPlatform(directory));
+
+        assertEquals(1, outbox.getPendingCount());
+
+        outbox.flush();
+        outbox.close();
+
+        assertEquals(0, outbox.getPendingCount());
+        assertTrue(new OutboxJournal(directory.resolve("outbox.log"), "key").load().isEmpty());
+    }
+
+    @Test
+    void testRetryPolicies() {
+        SocketTimeoutException timeout = new SocketTimeoutException("Read timed out");
+
+        // The website may have created the user before the timeout
+        assertFalse(OutboxEntry.Type.REGISTER.getRetryPolicy().shouldRetry(1, timeout));
+        assertFalse(OutboxEntry.Type.MONEY.getRetryPolicy().shouldRetry(1, timeout));
+        assertTrue(OutboxEntry.Type.PASSWORD.getRetryPolicy().shouldRetry(1, timeout));
+        assertTrue(OutboxEntry.Type.REGISTER.getRetryPolicy().shouldRetry(1, new ConnectException()));
+    }
+
+    private static Outbox createOutbox(TestPlatform platform) {
+        AzLinkPlugin plugin = platform.getPlugin();
+
+        // Nothing listens on this port, so the entries stay in the outbox
+        plugin.getConfig().setSiteUrl("http://127.0.0.1:1");
+        plugin.getConfig().setSiteKey("key");
+
+        Outbox outbox = plugin.getOutbox();
+        outbox.load();
+
+        return outbox;
+    }
+}
@@ -0,0 +1,75 @@
+package com.azuriom.azlink.common.pending;
+
+import com.azuriom.azlink.common.TestPlatform;
+import com.azuriom.azlink.common.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingCommandStoreTest {
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        Path directory = Files.createTempDirectory("azlink");
+        CommandSender steve = player("Steve", UUID.randomUUID());
+        PendingCommandStore store = new PendingCommandStore(new TestPlatform(directory).getPlugin());
+
+        store.add("Steve", "say 1");
+        store.add(steve.getUuid().toString(), "say 2");
+        store.add("steve", "say 3");
+        store.add("Alex", "say 4");
+        store.save();
+
+        PendingCommandStore loaded = new PendingCommandStore(new TestPlatform(directory).getPlugin());
+        loaded.load();
+
+        assertEquals(4, loaded.getPendingCount());
+        assertEquals(Arrays.asList("say 1", "say 2", "say 3"), loaded.remove(steve));
+        assertTrue(loaded.remove(steve).isEmpty());
+        assertEquals(1, loaded.getPendingCount());
+    }
+
+    @Test
+    void testReceiveOrder() throws IOException {
+        Path directory = Files.createTempDirectory("azlink");
+        CommandSender steve = player("Steve", UUID.randomUUID());
+        PendingCommandStore store = new PendingCommandStore(new TestPlatform(directory).getPlugin());
+
+        store.add(steve.getUuid().toString(), "say 1");
+        store.add("Steve", "say 2");
+        store.add(steve.getUuid().toString(), "say 3");
+
+        assertEquals(Arrays.asList("say 1", "say 2", "say 3"), store.remove(steve));
+        assertEquals(0, store.getPendingCount());
+    }
+
+    private static CommandSender player(String name, UUID uuid) {
+        return new CommandSender() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public void sendMessage(String message) {
+            }
+
+            @Override
+            public boolean hasPermission(String permission) {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.azuriom.azlink.common.players;
+
+import com.azuriom.azlink.common.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlayerRegistryTest {
+
+    private static final UUID STEVE_UUID = UUID.randomUUID();
+    private static final UUID ALEX_UUID = UUID.randomUUID();
+
+    @Test
+    void testAddAndRemove() {
+        PlayerRegistry registry = new PlayerRegistry();
+        CommandSender steve = new TestPlayer("Steve", STEVE_UUID);
+
+        registry.addPlayer(steve);
+
+        assertSame(steve, registry.getPlayer("steve"));
+        assertSame(steve, registry.getPlayer("STEVE"));
+        assertSame(steve, registry.getPlayer(STEVE_UUID));
+        assertEquals(1, registry.getPlayersCount());
+
+        registry.removePlayer(STEVE_UUID);
+
+        assertNull(registry.getPlayer("Steve"));
+        assertNull(registry.getPlayer(STEVE_UUID));
+        assertEquals(0, registry.getPlayersCount());
+    }
+
+    @Test
+    void testNameChange() {
+        PlayerRegistry registry = new PlayerRegistry();
+
+        registry.addPlayer(new TestPlayer("Steve", STEVE_UUID));
+        registry.addPlayer(new TestPlayer("Steve2", STEVE_UUID));
+
+        assertNull(registry.getPlayer("Steve"));
+        assertEquals("Steve2", registry.getPlayer("steve2").getName());
+        assertEquals(1, registry.getPlayersCount());
+    }
+
+    @Test
+    void testSynchronize() {
+        PlayerRegistry registry = new PlayerRegistry();
+        CommandSender steve = new TestPlayer("Steve", STEVE_UUID);
+
+        registry.addPlayer(steve);
+        registry.synchronize(Stream.of(new TestPlayer("Steve", STEVE_UUID), new TestPlayer("Alex", ALEX_UUID)));
+
+        assertSame(steve, registry.getPlayer(STEVE_UUID));
+        assertEquals("Alex", registry.getPlayer("alex").getName());
+
+        registry.synchronize(Stream.of(new TestPlayer("Alex", ALEX_UUID)));
+
+        assertNull(registry.getPlayer("steve"));
+        assertEquals(1, registry.getPlayersCount());
+    }
+
+    private static class TestPlayer implements CommandSender {
+
+        private final String name;
+        private final UUID uuid;
+
+        public TestPlayer(String name, UUID uuid) {
+            this.name = name;
+            this.uuid = uuid;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public UUID getUuid() {
+            return this.uuid;
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public boolean hasPermission(String permission) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.azuriom.azlink.common.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchedSyncExecutorTest {
+
+    @Test
+    void testTasksOrder() {
+        List<Integer> executed = new ArrayList<>();
+        BatchedSyncExecutor executor = new BatchedSyncExecutor((message, e) -> {});
+
+        for (int i = 0; i < 5; i++) {
+            int task = i;
+            executor.execute(() -> executed.add(task));
+        }
+
+        assertEquals(5, executor.getQueuedTasks());
+
+        executor.drain();
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), executed);
+        assertEquals(0, executor.getQueuedTasks());
+        assertEquals(5, executor.getWaitTimer().getCount());
+    }
+
+    @Test
+    void testTasksSubmittedWhileDraining() {
+        List<String> executed = new ArrayList<>();
+        BatchedSyncExecutor executor = new BatchedSyncExecutor((message, e) -> {});
+
+        executor.execute(() -> {
+            executed.add("first");
+            executor.execute(() -> executed.add("next tick"));
+        });
+
+        executor.drain();
+
+        assertEquals(Collections.singletonList("first"), executed);
+        assertEquals(1, executor.getQueuedTasks());
+
+        executor.drain();
+
+        assertEquals(Arrays.asList("first", "next tick"), executed);
+    }
+
+    @Test
+    void testTaskException() {
+        List<Throwable> errors = new ArrayList<>();
+        List<String> executed = new ArrayList<>();
+        BatchedSyncExecutor executor = new BatchedSyncExecutor((message, e) -> errors.add(e));
+
+        executor.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        executor.execute(() -> executed.add("after"));
+
+        executor.drain();
+
+        assertEquals(1, errors.size());
+        assertEquals(Collections.singletonList("after"), executed);
+    }
+}
@@ -0,0 +1,144 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.TestPlatform;
+import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.config.PluginConfig;
+import com.azuriom.azlink.common.data.WebsiteCommand;
+import com.azuriom.azlink.common.scheduler.CancellableTask;
+import com.azuriom.azlink.common.scheduler.SchedulerAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandDispatchQueueTest {
+
+    private static final CommandSender STEVE = new CommandSender() {
+        private final UUID uuid = UUID.randomUUID();
+
+        @Override
+        public String getName() {
+            return "Steve";
+        }
+
+        @Override
+        public UUID getUuid() {
+            return this.uuid;
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public boolean hasPermission(String permission) {
+            return true;
+        }
+    };
+
+    @Test
+    void testGlobalRegionByDefault() {
+        RegionScheduler scheduler = new RegionScheduler();
+        TestPlatform platform = new TestPlatform(Paths.get("azlink"), scheduler);
+        CommandDispatchQueue queue = new CommandDispatchQueue(platform.getPlugin());
+
+        queue.submit("Steve", Collections.singletonList(new WebsiteCommand("give {player} diamond", false)), name -> STEVE);
+
+        assertTrue(scheduler.regionTasks.isEmpty());
+
+        scheduler.runGlobalTasks();
+
+        assertEquals(Collections.singletonList("give Steve diamond"), platform.getDispatchedCommands());
+    }
+
+    @Test
+    void testPlayerCommandsOrder() throws ReflectiveOperationException {
+        RegionScheduler scheduler = new RegionScheduler();
+        TestPlatform platform = new TestPlatform(Paths.get("azlink"), scheduler);
+        CommandDispatchQueue queue = new CommandDispatchQueue(platform.getPlugin());
+
+        enablePlayerRegionCommands(platform.getPlugin().getConfig());
+
+        // The first commands don't use the player, so they are dispatched on the global region
+        queue.submit("Steve", Collections.singletonList(new WebsiteCommand("say hello", false)), name -> STEVE);
+        queue.submit("steve", Collections.singletonList(new WebsiteCommand("give {player} diamond", false)), name -> STEVE);
+
+        assertTrue(scheduler.regionTasks.isEmpty());
+
+        scheduler.runGlobalTasks();
+
+        assertEquals(Arrays.asList("say hello", "give Steve diamond"), platform.getDispatchedCommands());
+
+        // Once the previous commands are dispatched, the player commands use the region of the player
+        queue.submit("Steve", Collections.singletonList(new WebsiteCommand("give {player} apple", false)), name -> STEVE);
+
+        assertEquals(1, scheduler.regionTasks.size());
+
+        scheduler.regionTasks.poll().run();
+
+        assertEquals("give Steve apple", platform.getDispatchedCommands().get(2));
+    }
+
+    private static void enablePlayerRegionCommands(PluginConfig config) throws ReflectiveOperationException {
+        Field field = PluginConfig.class.getDeclaredField("playerRegionCommands");
+        field.setAccessible(true);
+        field.set(config, true);
+    }
+
+    /**
+     * Scheduler with a thread for each player, like Folia, running the tasks only when requested.
+     */
+    private static class RegionScheduler implements SchedulerAdapter {
+
+        private final Queue<Runnable> globalTasks = new ArrayDeque<>();
+        private final Queue<Runnable> regionTasks = new ArrayDeque<>();
+
+        public void runGlobalTasks() {
+            Runnable task;
+
+            while ((task = this.globalTasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void executeForPlayer(UUID playerId, Runnable runnable) {
+            this.regionTasks.add(runnable);
+        }
+
+        @Override
+        public boolean hasPlayerThreads() {
+            return true;
+        }
+
+        @Override
+        public Executor syncExecutor() {
+            return this.globalTasks::add;
+        }
+
+        @Override
+        public Executor asyncExecutor() {
+            return Runnable::run;
+        }
+
+        @Override
+        public CancellableTask scheduleAsyncLater(Runnable runnable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CancellableTask scheduleAsyncRepeating(Runnable runnable, long delay, long interval, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
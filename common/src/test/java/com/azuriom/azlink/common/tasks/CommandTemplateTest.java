@@ -0,0 +1,81 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandTemplateTest {
+
+    private static final UUID PLAYER_UUID = UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+
+    @Test
+    void testRenderOnlinePlayer() {
+        CommandTemplate template = CommandTemplate.parse("give {player} diamond {uuid} {uuid_nodash} {display_name}");
+        CommandTemplate.PlayerValues values = new CommandTemplate.PlayerValues("steve", new TestPlayer());
+
+        assertEquals("give Steve diamond 0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0 0f1e2d3c4b5a69788796a5b4c3d2e1f0 [VIP] Steve",
+                template.render(new StringBuilder(), values));
+    }
+
+    @Test
+    void testRenderOfflinePlayer() {
+        CommandTemplate template = CommandTemplate.parse("{player}:{uuid}:{uuid_nodash}:{display_name}");
+        CommandTemplate.PlayerValues values = new CommandTemplate.PlayerValues("Alex", null);
+
+        assertEquals("Alex:?:?:Alex", template.render(new StringBuilder(), values));
+    }
+
+    @Test
+    void testUnknownPlaceholders() {
+        CommandTemplate template = CommandTemplate.parse("say {unknown} {{player}} {player");
+        CommandTemplate.PlayerValues values = new CommandTemplate.PlayerValues("Alex", null);
+
+        assertEquals("say {unknown} {Alex} {player", template.render(new StringBuilder("previous"), values));
+    }
+
+    @Test
+    void testPlayerSpecific() {
+        assertTrue(CommandTemplate.parse("give {player} diamond").isPlayerSpecific());
+        assertTrue(CommandTemplate.parse("lp user {uuid} parent add vip").isPlayerSpecific());
+        assertFalse(CommandTemplate.parse("say A new player bought a rank!").isPlayerSpecific());
+        assertFalse(CommandTemplate.parse("say {unknown}").isPlayerSpecific());
+    }
+
+    @Test
+    void testCache() {
+        assertSame(CommandTemplate.of("say {player}"), CommandTemplate.of("say {player}"));
+    }
+
+    private static class TestPlayer implements CommandSender {
+
+        @Override
+        public String getName() {
+            return "Steve";
+        }
+
+        @Override
+        public UUID getUuid() {
+            return PLAYER_UUID;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "[VIP] Steve";
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public boolean hasPermission(String permission) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.azuriom.azlink.common.tasks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FetchIntervalTest {
+
+    @Test
+    void testNext() {
+        FetchInterval interval = new FetchInterval();
+
+        assertEquals(60, interval.next(null, false, 5, 30, 180));
+        assertEquals(30, interval.next(null, true, 5, 30, 180));
+        assertEquals(60, interval.next(null, false, 5, 30, 180));
+
+        // Empty server
+        assertEquals(120, interval.next(null, false, 0, 30, 180));
+        assertEquals(180, interval.next(null, false, 0, 30, 180));
+        assertEquals(180, interval.next(null, false, 0, 30, 180));
+
+        // Website hint, within the bounds
+        assertEquals(45, interval.next(45, false, 0, 30, 180));
+        assertEquals(30, interval.next(1, false, 0, 30, 180));
+        assertEquals(180, interval.next(3600, false, 0, 30, 180));
+
+        assertEquals(60, interval.reset(30, 180));
+        assertEquals(10, interval.next(null, true, 5, 0, 0));
+    }
+}
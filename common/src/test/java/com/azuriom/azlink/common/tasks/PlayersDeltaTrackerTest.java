@@ -0,0 +1,66 @@
+package com.azuriom.azlink.common.tasks;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.data.PlatformData;
+import com.azuriom.azlink.common.data.PlayerData;
+import com.azuriom.azlink.common.data.ServerData;
+import com.azuriom.azlink.common.data.WebsiteResponse;
+import com.azuriom.azlink.common.platform.PlatformInfo;
+import com.azuriom.azlink.common.platform.PlatformType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlayersDeltaTrackerTest {
+
+    private static final PlayerData STEVE = new PlayerData("Steve", UUID.randomUUID());
+    private static final PlayerData ALEX = new PlayerData("Alex", UUID.randomUUID());
+
+    @Test
+    void testDelta() {
+        PlayersDeltaTracker tracker = new PlayersDeltaTracker();
+
+        ServerData snapshot = tracker.prepare(data(STEVE));
+        assertEquals(Long.valueOf(1), snapshot.getSequence());
+        assertEquals(1, snapshot.getPlayers().size());
+        assertNull(snapshot.getBaseSequence());
+
+        tracker.acknowledge(response("{\"players_sequence\":1}"));
+
+        ServerData delta = tracker.prepare(data(ALEX));
+        assertNull(delta.getPlayers());
+        assertEquals(Long.valueOf(1), delta.getBaseSequence());
+        assertEquals(Collections.singletonList(ALEX), delta.getJoinedPlayers());
+        assertEquals(Collections.singletonList(STEVE), delta.getLeftPlayers());
+
+        // Not acknowledged, the next delta is still based on the first snapshot
+        delta = tracker.prepare(data(STEVE, ALEX));
+        assertEquals(Long.valueOf(3), delta.getSequence());
+        assertEquals(Long.valueOf(1), delta.getBaseSequence());
+        assertEquals(Collections.singletonList(ALEX), delta.getJoinedPlayers());
+        assertEquals(Collections.emptyList(), delta.getLeftPlayers());
+
+        tracker.acknowledge(response("{\"players_sequence\":3}"));
+        delta = tracker.prepare(data(STEVE, ALEX));
+        assertEquals(Collections.emptyList(), delta.getJoinedPlayers());
+        assertEquals(Collections.emptyList(), delta.getLeftPlayers());
+
+        tracker.acknowledge(response("{\"players_sequence\":4,\"players_snapshot\":true}"));
+        assertEquals(2, tracker.prepare(data(STEVE, ALEX)).getPlayers().size());
+    }
+
+    private static ServerData data(PlayerData... players) {
+        PlatformData platform = new PlatformData(PlatformType.BUKKIT, new PlatformInfo("Test", "1.0"));
+
+        return new ServerData(platform, "1.0", Arrays.asList(players), 20, null, null, false);
+    }
+
+    private static WebsiteResponse response(String json) {
+        return AzLinkPlugin.getGson().fromJson(json, WebsiteResponse.class);
+    }
+}
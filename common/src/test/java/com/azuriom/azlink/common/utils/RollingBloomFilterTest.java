@@ -0,0 +1,61 @@
+package com.azuriom.azlink.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingBloomFilterTest {
+
+    @Test
+    void testContainsRecentValues() {
+        RollingBloomFilter filter = new RollingBloomFilter(100, 1e-6);
+
+        for (int i = 0; i < 150; i++) {
+            filter.add("command-" + i);
+        }
+
+        for (int i = 0; i < 150; i++) {
+            assertTrue(filter.mightContain("command-" + i));
+        }
+
+        assertFalse(filter.mightContain("command-150"));
+    }
+
+    @Test
+    void testForgetOldValues() {
+        RollingBloomFilter filter = new RollingBloomFilter(100, 1e-6);
+
+        for (int i = 0; i < 300; i++) {
+            filter.add("command-" + i);
+        }
+
+        assertFalse(filter.mightContain("command-0"));
+        assertTrue(filter.mightContain("command-299"));
+    }
+
+    @Test
+    void testWriteAndRead() throws IOException {
+        RollingBloomFilter filter = new RollingBloomFilter(100, 1e-6);
+        filter.add("a");
+        filter.add("b");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+
+        RollingBloomFilter other = new RollingBloomFilter(100, 1e-6);
+        assertTrue(other.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertTrue(other.mightContain("a"));
+        assertTrue(other.mightContain("b"));
+        assertFalse(other.mightContain("c"));
+
+        RollingBloomFilter incompatible = new RollingBloomFilter(200, 1e-6);
+        assertFalse(incompatible.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
@@ -16,6 +16,8 @@ import com.hypixel.hytale.common.util.java.ManifestUtil;
 import com.hypixel.hytale.metrics.metric.HistoricMetric;
 import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.console.ConsoleSender;
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.Universe;
@@ -40,6 +42,10 @@ public final class AzLinkHytalePlugin extends JavaPlugin implements AzLinkPlatfo
     @Override
     protected void setup() {
         getCommandRegistry().registerCommand(new HytaleCommandExecutor(this));
+
+        HytalePlayerListener playerListener = new HytalePlayerListener(this.plugin);
+        getEventRegistry().register(PlayerConnectEvent.class, playerListener::onPlayerJoin);
+        getEventRegistry().register(PlayerDisconnectEvent.class, playerListener::onPlayerQuit);
     }
 
     @Override
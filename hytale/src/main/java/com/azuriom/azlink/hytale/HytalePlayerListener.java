@@ -0,0 +1,23 @@
+package com.azuriom.azlink.hytale;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.hytale.command.HytalePlayerWrapper;
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+
+public class HytalePlayerListener {
+
+    private final AzLinkPlugin plugin;
+
+    public HytalePlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void onPlayerJoin(PlayerConnectEvent event) {
+        this.plugin.handlePlayerJoin(new HytalePlayerWrapper(event.getPlayerRef()));
+    }
+
+    public void onPlayerQuit(PlayerDisconnectEvent event) {
+        this.plugin.handlePlayerQuit(new HytalePlayerWrapper(event.getPlayerRef()));
+    }
+}
@@ -19,6 +19,7 @@ import com.azuriom.azlink.nukkit.utils.NukkitLoggerAdapter;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Stream;
 
 public final class AzLinkNukkitPlugin extends PluginBase implements AzLinkPlatform {
@@ -46,6 +47,8 @@ public final class AzLinkNukkitPlugin extends PluginBase implements AzLinkPlatfo
         PluginIdentifiableCommand command = getCommand("azlink");
         ((PluginCommand<?>) command).setExecutor(new NukkitCommandExecutor(this.plugin));
 
+        getServer().getPluginManager().registerEvents(new NukkitPlayerListener(this.plugin), this);
+
         getServer().getScheduler().scheduleDelayedRepeatingTask(this, this.tpsTask, 0, 1);
     }
 
@@ -99,6 +102,11 @@ public final class AzLinkNukkitPlugin extends PluginBase implements AzLinkPlatfo
         return Optional.of(new WorldData(this.tpsTask.getTps(), loadedChunks, entities));
     }
 
+    @Override
+    public OptionalDouble getTps() {
+        return OptionalDouble.of(this.tpsTask.getTps());
+    }
+
     @Override
     public Path getDataDirectory() {
         return getDataFolder().toPath();
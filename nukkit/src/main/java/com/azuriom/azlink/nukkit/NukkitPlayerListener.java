@@ -0,0 +1,28 @@
+package com.azuriom.azlink.nukkit;
+
+import cn.nukkit.event.EventHandler;
+import cn.nukkit.event.EventPriority;
+import cn.nukkit.event.Listener;
+import cn.nukkit.event.player.PlayerJoinEvent;
+import cn.nukkit.event.player.PlayerQuitEvent;
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.nukkit.command.NukkitCommandSender;
+
+public class NukkitPlayerListener implements Listener {
+
+    private final AzLinkPlugin plugin;
+
+    public NukkitPlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        this.plugin.handlePlayerJoin(new NukkitCommandSender(event.getPlayer()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.plugin.handlePlayerQuit(new NukkitCommandSender(event.getPlayer()));
+    }
+}
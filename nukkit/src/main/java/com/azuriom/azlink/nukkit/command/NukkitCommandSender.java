@@ -28,6 +28,15 @@ public class NukkitCommandSender implements CommandSender {
         return UUID.nameUUIDFromBytes(getName().getBytes());
     }
 
+    @Override
+    public String getDisplayName() {
+        if (this.commandSender instanceof Player) {
+            return ((Player) this.commandSender).getDisplayName();
+        }
+
+        return getName();
+    }
+
     @Override
     public void sendMessage(String message) {
         this.commandSender.sendMessage(TextFormat.colorize(message));
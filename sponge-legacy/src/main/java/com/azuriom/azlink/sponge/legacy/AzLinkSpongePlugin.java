@@ -31,6 +31,7 @@ import org.spongepowered.api.scheduler.Task;
 
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Stream;
 
 @Plugin(
@@ -68,6 +69,7 @@ public final class AzLinkSpongePlugin implements AzLinkPlatform {
         this.plugin.init();
 
         this.game.getCommandManager().register(this, new SpongeCommandExecutor(this.plugin), "azlink", "azuriomlink");
+        this.game.getEventManager().registerListeners(this, new SpongePlayerListener(this.plugin));
 
         Task.builder().intervalTicks(1).execute(this.tpsTask).submit(this);
     }
@@ -130,6 +132,11 @@ public final class AzLinkSpongePlugin implements AzLinkPlatform {
         return Optional.of(new WorldData(this.tpsTask.getTps(), loadedChunks, entities));
     }
 
+    @Override
+    public OptionalDouble getTps() {
+        return OptionalDouble.of(this.tpsTask.getTps());
+    }
+
     @Override
     public Stream<CommandSender> getOnlinePlayers() {
         return this.game.getServer().getOnlinePlayers().stream().map(SpongeCommandSender::new);
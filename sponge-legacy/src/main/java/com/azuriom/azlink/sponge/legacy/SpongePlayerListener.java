@@ -0,0 +1,26 @@
+package com.azuriom.azlink.sponge.legacy;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.sponge.legacy.command.SpongeCommandSender;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+
+public class SpongePlayerListener {
+
+    private final AzLinkPlugin plugin;
+
+    public SpongePlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Listener(order = Order.POST)
+    public void onPlayerJoin(ClientConnectionEvent.Join event) {
+        this.plugin.handlePlayerJoin(new SpongeCommandSender(event.getTargetEntity()));
+    }
+
+    @Listener(order = Order.POST)
+    public void onPlayerQuit(ClientConnectionEvent.Disconnect event) {
+        this.plugin.handlePlayerQuit(new SpongeCommandSender(event.getTargetEntity()));
+    }
+}
@@ -40,6 +40,7 @@ import org.spongepowered.plugin.metadata.PluginMetadata;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Stream;
 
 @Plugin("azlink")
@@ -76,6 +77,8 @@ public final class AzLinkSpongePlugin implements AzLinkPlatform {
 
         event.engine().scheduler().submit(task);
 
+        this.game.eventManager().registerListeners(this.pluginContainer, new SpongePlayerListener(this.plugin));
+
         loadConfig();
 
         if (this.game.pluginManager().plugin("skinsrestorer").isPresent()
@@ -150,6 +153,11 @@ public final class AzLinkSpongePlugin implements AzLinkPlatform {
         return Optional.of(new WorldData(this.tpsTask.getTps(), loadedChunks, entities));
     }
 
+    @Override
+    public OptionalDouble getTps() {
+        return OptionalDouble.of(this.tpsTask.getTps());
+    }
+
     @Override
     public Stream<CommandSender> getOnlinePlayers() {
         return this.game.server().onlinePlayers().stream()
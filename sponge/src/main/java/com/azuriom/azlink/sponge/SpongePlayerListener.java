@@ -0,0 +1,31 @@
+package com.azuriom.azlink.sponge;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.sponge.command.SpongeCommandSender;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+
+public class SpongePlayerListener {
+
+    private final AzLinkPlugin plugin;
+
+    public SpongePlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Listener(order = Order.POST)
+    public void onPlayerJoin(ServerSideConnectionEvent.Join event) {
+        ServerPlayer player = event.player();
+
+        this.plugin.handlePlayerJoin(new SpongeCommandSender(player, player));
+    }
+
+    @Listener(order = Order.POST)
+    public void onPlayerQuit(ServerSideConnectionEvent.Disconnect event) {
+        ServerPlayer player = event.player();
+
+        this.plugin.handlePlayerQuit(new SpongeCommandSender(player, player));
+    }
+}
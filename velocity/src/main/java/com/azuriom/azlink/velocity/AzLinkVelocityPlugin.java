@@ -3,6 +3,8 @@ package com.azuriom.azlink.velocity;
 import com.azuriom.azlink.common.AzLinkPlatform;
 import com.azuriom.azlink.common.AzLinkPlugin;
 import com.azuriom.azlink.common.command.CommandSender;
+import com.azuriom.azlink.common.http.server.HttpServer;
+import com.azuriom.azlink.common.http.server.NettyHttpServer;
 import com.azuriom.azlink.common.logger.LoggerAdapter;
 import com.azuriom.azlink.common.logger.Slf4jLoggerAdapter;
 import com.azuriom.azlink.common.platform.PlatformInfo;
@@ -23,11 +25,15 @@ import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.util.ProxyVersion;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
 import ninja.leaping.configurate.ConfigurationNode;
 import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 
@@ -72,12 +78,25 @@ public final class AzLinkVelocityPlugin implements AzLinkPlatform {
             return;
         }
 
-        this.plugin = new AzLinkPlugin(this);
+        this.plugin = new AzLinkPlugin(this) {
+            @Override
+            protected HttpServer createHttpServer() {
+                if (getConfig().getHttpPort() == proxy.getBoundAddress().getPort()) {
+                    return new VelocityInjectedHttpServer(this, AzLinkVelocityPlugin.this);
+                }
+
+                HttpServer server = createProxyHttpServer(this);
+
+                return server != null ? server : super.createHttpServer();
+            }
+        };
         this.plugin.init();
 
         this.proxy.getCommandManager()
                 .register("azlink", new VelocityCommandExecutor(this.plugin), "azuriomlink");
 
+        this.proxy.getEventManager().register(this, new VelocityPlayerListener(this.plugin));
+
         loadConfig();
 
         if (this.proxy.getPluginManager().getPlugin("limboauth").isPresent()
@@ -159,6 +178,40 @@ public final class AzLinkVelocityPlugin implements AzLinkPlatform {
         return this.proxy;
     }
 
+    @SuppressWarnings("unchecked")
+    private HttpServer createProxyHttpServer(AzLinkPlugin plugin) {
+        try {
+            // Reuse the proxy event loops instead of creating new threads
+            Object connectionManager = getFieldValue(this.proxy, "cm");
+
+            EventLoopGroup bossGroup = (EventLoopGroup) getFieldValue(connectionManager, "bossGroup");
+            EventLoopGroup workerGroup = (EventLoopGroup) getFieldValue(connectionManager, "workerGroup");
+            Object transportType = getFieldValue(connectionManager, "transportType");
+            ChannelFactory<? extends ServerChannel> channelFactory = (ChannelFactory<? extends ServerChannel>)
+                    getFieldValue(transportType, "serverSocketChannelFactory");
+
+            return new NettyHttpServer(plugin, bossGroup, workerGroup, channelFactory);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            this.logger.warn("Unable to use the Velocity event loops for the HTTP server, new ones will be created: " + e);
+            return null;
+        }
+    }
+
+    static Object getFieldValue(Object instance, String name) throws ReflectiveOperationException {
+        for (Class<?> type = instance.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+
+                return field.get(instance);
+            } catch (NoSuchFieldException e) {
+                // Try the superclass
+            }
+        }
+
+        throw new NoSuchFieldException(name);
+    }
+
     private void loadConfig() {
         Path configPath = this.dataDirectory.resolve("config.yml");
 
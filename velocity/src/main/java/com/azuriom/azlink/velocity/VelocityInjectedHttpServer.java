@@ -0,0 +1,47 @@
+package com.azuriom.azlink.velocity;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.common.http.server.InjectedHttpServer;
+import io.netty.channel.Channel;
+import io.netty.channel.ServerChannel;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class VelocityInjectedHttpServer extends InjectedHttpServer {
+
+    private final AzLinkVelocityPlugin velocityPlugin;
+
+    public VelocityInjectedHttpServer(AzLinkPlugin plugin, AzLinkVelocityPlugin velocityPlugin) {
+        super(plugin);
+
+        this.velocityPlugin = velocityPlugin;
+    }
+
+    @Override
+    protected Collection<Channel> findServerChannels() throws Exception {
+        Object connectionManager = AzLinkVelocityPlugin.getFieldValue(this.velocityPlugin.getProxy(), "cm");
+        Map<?, ?> endpoints = (Map<?, ?>) AzLinkVelocityPlugin.getFieldValue(connectionManager, "endpoints");
+        int port = this.plugin.getConfig().getHttpPort();
+        List<Channel> channels = new ArrayList<>();
+
+        for (Object endpoint : new ArrayList<>(endpoints.values())) {
+            // Velocity 3.0 and lower directly store the channels
+            Channel channel = endpoint instanceof Channel ? (Channel) endpoint
+                    : (Channel) endpoint.getClass().getMethod("getChannel").invoke(endpoint);
+            SocketAddress address = channel.localAddress();
+
+            // Ignore the query channel and the other listeners
+            if (channel instanceof ServerChannel && address instanceof InetSocketAddress
+                    && ((InetSocketAddress) address).getPort() == port) {
+                channels.add(channel);
+            }
+        }
+
+        return channels;
+    }
+}
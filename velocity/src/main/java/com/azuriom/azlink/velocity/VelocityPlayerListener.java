@@ -0,0 +1,27 @@
+package com.azuriom.azlink.velocity;
+
+import com.azuriom.azlink.common.AzLinkPlugin;
+import com.azuriom.azlink.velocity.command.VelocityCommandSender;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+
+public class VelocityPlayerListener {
+
+    private final AzLinkPlugin plugin;
+
+    public VelocityPlayerListener(AzLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onPlayerJoin(PostLoginEvent event) {
+        this.plugin.handlePlayerJoin(new VelocityCommandSender(event.getPlayer()));
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onPlayerQuit(DisconnectEvent event) {
+        this.plugin.handlePlayerQuit(new VelocityCommandSender(event.getPlayer()));
+    }
+}
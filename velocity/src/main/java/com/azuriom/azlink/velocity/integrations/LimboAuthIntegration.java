@@ -24,7 +24,7 @@ public class LimboAuthIntegration {
         InetAddress ip = player.getRemoteAddress().getAddress();
 
         this.plugin.getPlugin()
-                .getHttpClient()
+                .getOutbox()
                 .registerUser(player.getUsername(), null, player.getUniqueId(), password, ip)
                 .exceptionally(ex -> {
                     this.plugin.getLoggerAdapter().error("Unable to register " + player.getUsername(), ex);